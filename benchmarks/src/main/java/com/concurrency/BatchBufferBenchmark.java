@@ -0,0 +1,86 @@
+package com.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+  Element throughput of produceBatch/drainTo against the batch size; batch
+  size 1 is the one-element-per-handoff baseline. Every thread stores a batch
+  and then drains at most as many elements as it stored, so the buffer always
+  holds enough for the threads draining and none can block forever.
+
+  The "elements" counter is the figure to compare: one invocation moves a
+  variable number of elements, so the primary ops/us score is per handoff.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BatchBufferBenchmark {
+
+    @Param({"LOCKING", "RING_MULTI_PRODUCER"})
+    public ProducerConsumer.BufferType bufferType;
+
+    @Param({"1", "4", "16", "64"})
+    public int batchSize;
+
+    @Param({"256"})
+    public int capacity;
+
+    BoundedBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.silenceStdout();
+        buffer = ProducerConsumer.createBuffer(bufferType, capacity, new PerformanceMetrics(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.stop();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Actor {
+        private static final AtomicInteger IDS = new AtomicInteger();
+
+        int id;
+        int[] batch;
+        public long elements;
+
+        @Setup(Level.Trial)
+        public void setup(BatchBufferBenchmark benchmark) {
+            id = IDS.getAndIncrement();
+            batch = new int[benchmark.batchSize];
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            elements = 0;
+        }
+    }
+
+    @Benchmark
+    public void produceDrain(Actor actor) throws InterruptedException {
+        int stored = buffer.produceBatch(actor.id, actor.batch, 0, actor.batch.length);
+        actor.elements += buffer.drainTo(actor.id, actor.batch, stored);
+    }
+}
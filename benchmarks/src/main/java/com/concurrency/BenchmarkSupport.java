@@ -0,0 +1,19 @@
+package com.concurrency;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/** Helpers shared by the benchmark states */
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    /*
+      Turn the event log off and swallow whatever else reaches stdout inside
+      the forked benchmark JVM, so we measure synchronization, not logging.
+     */
+    static void silenceStdout() {
+        EventLog.setLevel(EventLog.Level.OFF);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
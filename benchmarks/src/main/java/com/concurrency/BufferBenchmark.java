@@ -0,0 +1,78 @@
+package com.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/*
+  Producer-Consumer buffer handoff without the 50-150 ms sleeps of
+  Producer/Consumer. Every benchmark thread produces one element and then
+  consumes one, so with capacity >= thread count no thread can block forever
+  when JMH ends an iteration.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BufferBenchmark {
+
+    @Param({"LOCKING", "LOCKING_LINKED_LIST", "RING_MULTI_PRODUCER"})
+    public ProducerConsumer.BufferType bufferType;
+
+    @Param({"64"})
+    public int capacity;
+
+    // Only affects LOCKING; try -p waitStrategy=BLOCKING,ADAPTIVE,SPIN with a core per thread
+    @Param({"BLOCKING"})
+    public WaitStrategy waitStrategy;
+
+    BoundedBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params) {
+        if (capacity < params.getThreads()) {
+            throw new IllegalArgumentException("capacity " + capacity + " < threads " + params.getThreads());
+        }
+        BenchmarkSupport.silenceStdout();
+        buffer = ProducerConsumer.createBuffer(bufferType, capacity, new PerformanceMetrics(), null, waitStrategy);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Actor {
+        private static final AtomicInteger IDS = new AtomicInteger();
+
+        int id;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            id = IDS.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    public void produceConsume(Actor actor) throws InterruptedException {
+        buffer.produce(actor.id);
+        buffer.consume(actor.id);
+    }
+}
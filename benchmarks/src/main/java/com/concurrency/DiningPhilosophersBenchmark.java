@@ -0,0 +1,67 @@
+package com.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/*
+  Fork acquisition with zero think and eat time: every benchmark thread is a
+  philosopher at a table with one fork per thread (at least two), and each
+  operation picks up and puts down both forks with the given strategy.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DiningPhilosophersBenchmark {
+
+    @Param({"RESOURCE_HIERARCHY", "WAITER", "CHANDY_MISRA", "TRY_ACQUIRE_BACKOFF"})
+    public DiningStrategy strategy;
+
+    DiningTable table;
+    SimulationState simulationState;
+    PerformanceMetrics metrics;
+    final AtomicInteger seats = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params) {
+        BenchmarkSupport.silenceStdout();
+        int numPhilosophers = Math.max(2, params.getThreads());
+        table = strategy.newTable(numPhilosophers, null);
+        simulationState = new SimulationState();
+        metrics = new PerformanceMetrics();
+    }
+
+    @State(Scope.Thread)
+    public static class Seat {
+        Philosopher philosopher;
+
+        @Setup(Level.Trial)
+        public void setup(DiningPhilosophersBenchmark table) {
+            int id = table.seats.getAndIncrement();
+            philosopher = new Philosopher(id, table.table, table.simulationState, table.metrics, null,
+                    SimulationConfig.builder(SimulationConfig.Simulation.DINING_PHILOSOPHERS).build());
+        }
+    }
+
+    @Benchmark
+    public void pickUpAndPutDownForks(Seat seat) throws InterruptedException {
+        seat.philosopher.pickUpForks();
+        seat.philosopher.putDownForks();
+    }
+}
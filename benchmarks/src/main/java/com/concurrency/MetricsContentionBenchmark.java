@@ -0,0 +1,58 @@
+package com.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+  Cost of one addOperation() + recordWaitTime() pair under contention.
+
+  atomicLong is the previous PerformanceMetrics layout (two shared AtomicLongs),
+  longAdder the striped counters alone, and performanceMetrics the real class,
+  which also records into the wait-time histogram. Sweep 1-64 threads with:
+
+    java -cp target/benchmarks.jar com.concurrency.ThreadSweep MetricsContention 1 2 4 8 16 32 64
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MetricsContentionBenchmark {
+    private static final long WAIT_NANOS = 1_234;
+
+    final AtomicLong atomicOperations = new AtomicLong();
+    final AtomicLong atomicWaitTime = new AtomicLong();
+    final LongAdder adderOperations = new LongAdder();
+    final LongAdder adderWaitTime = new LongAdder();
+    final PerformanceMetrics metrics = new PerformanceMetrics();
+
+    @Benchmark
+    public void atomicLong() {
+        atomicOperations.incrementAndGet();
+        atomicWaitTime.addAndGet(WAIT_NANOS);
+    }
+
+    @Benchmark
+    public void longAdder() {
+        adderOperations.increment();
+        adderWaitTime.add(WAIT_NANOS);
+    }
+
+    @Benchmark
+    public void performanceMetrics() {
+        metrics.addOperation();
+        metrics.recordWaitTime(WAIT_NANOS);
+    }
+}
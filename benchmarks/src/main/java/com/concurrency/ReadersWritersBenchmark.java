@@ -0,0 +1,79 @@
+package com.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+  Read and write sections on the Readers-Writers monitors with zero time
+  spent inside the critical section. Each operation is a write with
+  probability writeRatio, otherwise a read. "monitor" is either a
+  ReadersWritersPolicy for the classic monitor or STAMPED for the
+  StampedLock monitor with optimistic reads.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ReadersWritersBenchmark {
+
+    @Param({"0.0", "0.1", "0.5"})
+    public double writeRatio;
+
+    @Param({"READER_PREFERENCE", "WRITER_PREFERENCE", "PHASE_FAIR", "STAMPED"})
+    public String monitorType;
+
+    ReadWriteMonitor monitor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.silenceStdout();
+        monitor = monitorType.equals("STAMPED")
+                ? new StampedReadersWritersMonitor(new PerformanceMetrics())
+                : new ReadersWritersMonitor(new PerformanceMetrics(), null, ReadersWritersPolicy.valueOf(monitorType));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        monitor.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Actor {
+        private static final AtomicInteger IDS = new AtomicInteger();
+
+        int id;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            id = IDS.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    public int readOrWrite(Actor actor) throws InterruptedException {
+        if (ThreadLocalRandom.current().nextDouble() < writeRatio) {
+            monitor.startWrite(actor.id);
+            monitor.writeData(ThreadLocalRandom.current().nextInt(100));
+            monitor.endWrite(actor.id);
+            return 0;
+        }
+        return monitor.read(actor.id);
+    }
+}
@@ -0,0 +1,36 @@
+package com.concurrency;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+  Runs the selected benchmarks once per thread count and writes one CSV file
+  per count (jmh-<threads>-threads.csv).
+
+  Usage: java -cp target/benchmarks.jar com.concurrency.ThreadSweep [include-regex] [thread counts...]
+ */
+public class ThreadSweep {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com.concurrency.*Benchmark";
+        int[] threadCounts = {1, 2, 4, 8};
+        if (args.length > 1) {
+            threadCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                threadCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.CSV)
+                    .result("jmh-" + threads + "-threads.csv")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.concurrency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+  Per-actor operation and wait-time totals of one role, plus the role's
+  wait-time distribution.
+
+  Every actor owns a preallocated slot padded to its own pair of cache lines,
+  and only the actor's thread writes it, so recording is a plain read and an
+  ordered store with no contention and no false sharing. Readers (snapshots)
+  may see a slot one update behind, never a torn value.
+ */
+final class ActorMetrics {
+    private static final int STRIDE = 16; // longs: 128 bytes, clear of the adjacent-line prefetcher
+    private static final int OPERATIONS = 0;
+    private static final int WAIT_TIME = 1;
+
+    private final int actors;
+    private final AtomicLongArray slots;
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    ActorMetrics(int actors) {
+        this.actors = actors;
+        this.slots = new AtomicLongArray(actors * STRIDE);
+    }
+
+    int actors() {
+        return actors;
+    }
+
+    boolean owns(int actor) {
+        return actor >= 0 && actor < actors;
+    }
+
+    /** Only call from the actor's own thread */
+    void addOperations(int actor, long count) {
+        int i = actor * STRIDE + OPERATIONS;
+        slots.lazySet(i, slots.get(i) + count);
+    }
+
+    /** Only call from the actor's own thread */
+    void recordWaitTime(int actor, long nanos) {
+        int i = actor * STRIDE + WAIT_TIME;
+        slots.lazySet(i, slots.get(i) + nanos);
+        waitTimes.record(nanos);
+    }
+
+    /** Operations of every actor since creation */
+    long totalOperations() {
+        long sum = 0;
+        for (int a = 0; a < actors; a++) sum += slots.get(a * STRIDE + OPERATIONS);
+        return sum;
+    }
+
+    /** Raw totals since creation; PerformanceMetrics subtracts its baseline */
+    RoleSnapshot snapshot() {
+        long[] operations = new long[actors];
+        long[] waitTime = new long[actors];
+        for (int a = 0; a < actors; a++) {
+            operations[a] = slots.get(a * STRIDE + OPERATIONS);
+            waitTime[a] = slots.get(a * STRIDE + WAIT_TIME);
+        }
+        return new RoleSnapshot(operations, waitTime, waitTimes.counts(), waitTimes.getMax());
+    }
+
+    /** Restarts max tracking at the start of the measured interval */
+    void resetMax() {
+        waitTimes.resetMax();
+    }
+}
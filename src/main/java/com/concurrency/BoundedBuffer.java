@@ -0,0 +1,31 @@
+package com.concurrency;
+
+/**
+ * Bounded buffer shared between producer and consumer threads.
+ * Implementations block producers while full and consumers while empty,
+ * and release every waiting thread once stop() is called.
+ */
+interface BoundedBuffer {
+    void produce(int producer) throws InterruptedException;
+    void consume(int consumer) throws InterruptedException;
+    /**
+     * Blocks until there is room, then stores as many of src[off, off + len)
+     * as fit in one go and wakes consumers once. Returns the number stored (at least 1).
+     */
+    int produceBatch(int producer, int[] src, int off, int len) throws InterruptedException;
+    /**
+     * Blocks until an element is available, then removes up to max of them
+     * into dst[0, max) in one go and wakes producers once. Returns the number removed (at least 1).
+     */
+    int drainTo(int consumer, int[] dst, int max) throws InterruptedException;
+    /** Number of stored elements, read without locking; may be stale while the buffer is busy */
+    int size();
+    void stop();
+    boolean isRunning();
+
+    static void checkBatch(int length, int off, int len) {
+        if (off < 0 || len <= 0 || off > length - len) {
+            throw new IllegalArgumentException("bad batch range: off=" + off + ", len=" + len + ", length=" + length);
+        }
+    }
+}
@@ -1,59 +1,67 @@
 package com.concurrency;
 
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadFactory;
 
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+import com.concurrency.gui.StringObserverAdapter;
 import com.concurrency.gui.VisualizationObserver;
 
 public class DiningPhilosophers {
     public static void run(long durationMillis) {
-        run(durationMillis, null);
+        run(durationMillis, (SimulationObserver) null);
     }
 
     public static void run(long durationMillis, VisualizationObserver observer) {
-        PerformanceMetrics metrics = new PerformanceMetrics();
-        int numPhilosophers = 5;
-        Semaphore[] forks = new Semaphore[numPhilosophers];
-        for (int i = 0; i < numPhilosophers; i++) {
-            forks[i] = new Semaphore(1);
-        }
+        run(durationMillis, StringObserverAdapter.adapt(observer));
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer) {
+        run(durationMillis, observer, 5, DiningStrategy.RESOURCE_HIERARCHY);
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer, int numPhilosophers, DiningStrategy strategy) {
+        run(durationMillis, observer, numPhilosophers, strategy, SimulationThreads.defaultFactory());
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer, int numPhilosophers, DiningStrategy strategy,
+                           ThreadFactory threadFactory) {
+        run(SimulationConfig.builder(SimulationConfig.Simulation.DINING_PHILOSOPHERS)
+                .durationMillis(durationMillis)
+                .philosophers(numPhilosophers)
+                .diningStrategy(strategy)
+                .threadFactory(threadFactory)
+                .build(), observer);
+    }
+
+    public static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer) {
+        return run(config, observer, new PerformanceMetrics());
+    }
+
+    /** Records into the given metrics, so a caller can sample them while the run is in progress */
+    public static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer, PerformanceMetrics metrics) {
+        int numPhilosophers = config.getPhilosophers();
+        metrics.registerActors(PerformanceMetrics.Role.PHILOSOPHER, numPhilosophers);
+        Watchdog watchdog = Watchdog.start(config, numPhilosophers, p -> "Philosopher-" + (p + 1),
+                numPhilosophers, f -> "Fork-" + (f + 1), metrics, observer);
+        DiningTable table = config.getDiningStrategy().newTable(numPhilosophers, observer, watchdog);
 
         List<Thread> threads = new ArrayList<>();
         SimulationState state = new SimulationState();
 
         for (int i = 0; i < numPhilosophers; i++) {
-            Philosopher p = new Philosopher(i, forks, state, metrics, observer);
-            Thread t = new Thread(p, "Philosopher-" + (i + 1));
-            threads.add(t);
-            t.start();
+            Philosopher p = new Philosopher(i, table, state, metrics, observer, config);
+            threads.add(SimulationThreads.start(config.getThreadFactory(), p, "Philosopher-" + (i + 1)));
         }
 
-        metrics.start();
         try {
-            Thread.sleep(durationMillis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        state.running = false;
-
-        for (Thread t : threads) {
-            // We interrupt threads to ensure they don't get stuck if they are waiting for a long think/eat
-            // But strict Semaphore acquire might need interruption to wake up if deadlocked (which shouldn't happen here)
-            // or if we want faster shutdown.
-            // Let's rely on natural draining first, but interrupt if taking too long?
-            // Actually, interruption is safer to ensure prompt exit from sleeps.
-            t.interrupt();
-            try {
-                t.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            return SimulationRunner.measure(config, metrics, threads, () -> state.running = false,
+                    "Dining Philosophers (" + numPhilosophers + ", " + config.getDiningStrategy() + ")");
+        } finally {
+            if (watchdog != null) watchdog.close();
         }
-        metrics.stop();
-        metrics.printMetrics("Dining Philosophers");
     }
 }
 
@@ -63,70 +71,61 @@ class SimulationState {
 
 class Philosopher implements Runnable {
     private final int id;
-    private final Semaphore[] forks;
+    private final DiningTable table;
     private final SimulationState state;
     private final PerformanceMetrics metrics;
-    private final VisualizationObserver observer;
+    private final SimulationObserver observer;
+    private final SimulationConfig config;
 
-    public Philosopher(int id, Semaphore[] forks, SimulationState state, PerformanceMetrics metrics, VisualizationObserver observer) {
+    public Philosopher(int id, DiningTable table, SimulationState state, PerformanceMetrics metrics, SimulationObserver observer,
+                       SimulationConfig config) {
         this.id = id;
-        this.forks = forks;
+        this.table = table;
         this.state = state;
         this.metrics = metrics;
         this.observer = observer;
+        this.config = config;
     }
 
     @Override
     public void run() {
-        int leftFork = id;
-        int rightFork = (id + 1) % forks.length;
-
-        // Resource hierarchy: pick lower index first
-        int firstFork = Math.min(leftFork, rightFork);
-        int secondFork = Math.max(leftFork, rightFork);
-
         try {
             while (state.running && !Thread.currentThread().isInterrupted()) {
                 // Think
-                if (observer != null) observer.onPhilosopherState(id, "THINKING");
-                System.out.println("Philosopher " + (id + 1) + " is thinking.");
-                Thread.sleep(ThreadLocalRandom.current().nextInt(100) + 50);
+                if (observer != null) observer.onPhilosopherState(id, ActorState.THINKING);
+                EventLog.log(EventLog.Event.THINKING, id);
+                config.think();
 
                 // Hungry
-                if (observer != null) observer.onPhilosopherState(id, "HUNGRY");
+                if (observer != null) observer.onPhilosopherState(id, ActorState.HUNGRY);
                 long startWait = System.nanoTime();
 
-                forks[firstFork].acquire();
-                if (observer != null) observer.onForkUpdate(firstFork, true);
-                // Check interrupt/running status?
-                // If interrupted during acquire, it throws InterruptedException.
-                // If we proceed, we have the lock.
-
+                pickUpForks();
                 // We must use try-finally to ensure release
                 try {
-                    forks[secondFork].acquire();
-                    if (observer != null) observer.onForkUpdate(secondFork, true);
-                    try {
-                        long endWait = System.nanoTime();
-                        metrics.recordWaitTime(endWait - startWait);
-
-                        // Eat
-                        if (observer != null) observer.onPhilosopherState(id, "EATING");
-                        System.out.println("Philosopher " + (id + 1) + " is eating.");
-                        metrics.addOperation();
-                        Thread.sleep(ThreadLocalRandom.current().nextInt(100) + 50);
-                    } finally {
-                        forks[secondFork].release();
-                        if (observer != null) observer.onForkUpdate(secondFork, false);
-                    }
+                    long endWait = System.nanoTime();
+                    metrics.recordWaitTime(PerformanceMetrics.Role.PHILOSOPHER, id, endWait - startWait);
+
+                    // Eat
+                    if (observer != null) observer.onPhilosopherState(id, ActorState.EATING);
+                    EventLog.log(EventLog.Event.EATING, id);
+                    metrics.addOperation(PerformanceMetrics.Role.PHILOSOPHER, id);
+                    config.eat();
                 } finally {
-                    forks[firstFork].release();
-                    if (observer != null) observer.onForkUpdate(firstFork, false);
+                    putDownForks();
                 }
             }
         } catch (InterruptedException e) {
             // Thread.currentThread().interrupt();
-            System.out.println("Philosopher " + (id + 1) + " stopped.");
+            EventLog.log(EventLog.Event.PHILOSOPHER_STOPPED, id);
         }
     }
+
+    void pickUpForks() throws InterruptedException {
+        table.pickUpForks(id);
+    }
+
+    void putDownForks() {
+        table.putDownForks(id);
+    }
 }
@@ -0,0 +1,49 @@
+package com.concurrency;
+
+import com.concurrency.gui.SimulationObserver;
+
+/**
+ * Deadlock-free fork acquisition schemes for the Dining Philosophers table.
+ * Each strategy builds the table that philosophers pick up and put down
+ * their forks through.
+ */
+public enum DiningStrategy {
+    /** Every philosopher takes the lower-numbered fork first */
+    RESOURCE_HIERARCHY {
+        @Override
+        DiningTable newTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+            return new HierarchyTable(philosophers, observer, watchdog);
+        }
+    },
+
+    /** A waiter admits at most N-1 philosophers to the table at once */
+    WAITER {
+        @Override
+        DiningTable newTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+            return new WaiterTable(philosophers, observer, watchdog);
+        }
+    },
+
+    /** Chandy–Misra: each fork has an owner and a dirty flag; a hungry neighbour may only take a dirty fork */
+    CHANDY_MISRA {
+        @Override
+        DiningTable newTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+            return new ChandyMisraTable(philosophers, observer, watchdog);
+        }
+    },
+
+    /** Take the left fork, try the right one and back off if it is taken */
+    TRY_ACQUIRE_BACKOFF {
+        @Override
+        DiningTable newTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+            return new BackoffTable(philosophers, observer, watchdog);
+        }
+    };
+
+    DiningTable newTable(int philosophers, SimulationObserver observer) {
+        return newTable(philosophers, observer, null);
+    }
+
+    /** @param watchdog told about every fork wait, acquisition and release; may be null */
+    abstract DiningTable newTable(int philosophers, SimulationObserver observer, Watchdog watchdog);
+}
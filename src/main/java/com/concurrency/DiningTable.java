@@ -0,0 +1,315 @@
+package com.concurrency;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.concurrency.gui.SimulationObserver;
+
+/**
+ * Forks of a Dining Philosophers table. Philosopher i shares fork i with its
+ * left neighbour and fork (i + 1) % N with its right neighbour.
+ */
+interface DiningTable {
+    /** Blocks until the philosopher may eat; holds no fork in use if interrupted */
+    void pickUpForks(int philosopher) throws InterruptedException;
+    void putDownForks(int philosopher);
+}
+
+/* Forks as binary semaphores; subclasses decide the acquisition order */
+abstract class SemaphoreTable implements DiningTable {
+    protected final Semaphore[] forks;
+    protected final SimulationObserver observer;
+    protected final Watchdog watchdog;
+
+    SemaphoreTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+        if (philosophers < 2) throw new IllegalArgumentException("need at least two philosophers: " + philosophers);
+        this.forks = new Semaphore[philosophers];
+        for (int i = 0; i < philosophers; i++) {
+            forks[i] = new Semaphore(1);
+        }
+        this.observer = observer;
+        this.watchdog = watchdog;
+    }
+
+    protected int leftFork(int philosopher) {
+        return philosopher;
+    }
+
+    protected int rightFork(int philosopher) {
+        return (philosopher + 1) % forks.length;
+    }
+
+    /** Acquires first then second; holds neither if interrupted */
+    protected void acquireBoth(int philosopher, int first, int second) throws InterruptedException {
+        acquire(philosopher, first);
+        try {
+            acquire(philosopher, second);
+        } catch (InterruptedException e) {
+            release(philosopher, first);
+            throw e;
+        }
+    }
+
+    protected void acquire(int philosopher, int fork) throws InterruptedException {
+        if (watchdog != null) watchdog.waiting(philosopher, fork);
+        forks[fork].acquire();
+        if (watchdog != null) watchdog.acquired(philosopher, fork);
+        if (observer != null) observer.onForkUpdate(fork, true);
+    }
+
+    protected void release(int philosopher, int fork) {
+        if (watchdog != null) watchdog.released(philosopher, fork);
+        forks[fork].release();
+        if (observer != null) observer.onForkUpdate(fork, false);
+    }
+
+    protected void doneWaiting(int philosopher) {
+        if (watchdog != null) watchdog.doneWaiting(philosopher);
+    }
+
+    @Override
+    public void putDownForks(int philosopher) {
+        release(philosopher, rightFork(philosopher));
+        release(philosopher, leftFork(philosopher));
+    }
+}
+
+class HierarchyTable extends SemaphoreTable {
+    HierarchyTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+        super(philosophers, observer, watchdog);
+    }
+
+    @Override
+    public void pickUpForks(int philosopher) throws InterruptedException {
+        int left = leftFork(philosopher);
+        int right = rightFork(philosopher);
+        try {
+            // Resource hierarchy: pick lower index first
+            acquireBoth(philosopher, Math.min(left, right), Math.max(left, right));
+        } finally {
+            doneWaiting(philosopher);
+        }
+    }
+}
+
+class WaiterTable extends SemaphoreTable {
+    private final Semaphore seats;
+
+    WaiterTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+        super(philosophers, observer, watchdog);
+        // With one seat empty at least one seated philosopher can always get both forks
+        this.seats = new Semaphore(philosophers - 1, true);
+    }
+
+    @Override
+    public void pickUpForks(int philosopher) throws InterruptedException {
+        // A seat is a counting permit, so it has no single holder in the wait-for graph
+        if (watchdog != null) watchdog.waiting(philosopher, Watchdog.UNTRACKED);
+        try {
+            seats.acquire();
+            try {
+                acquireBoth(philosopher, leftFork(philosopher), rightFork(philosopher));
+            } catch (InterruptedException e) {
+                seats.release();
+                throw e;
+            }
+        } finally {
+            doneWaiting(philosopher);
+        }
+    }
+
+    @Override
+    public void putDownForks(int philosopher) {
+        super.putDownForks(philosopher);
+        seats.release();
+    }
+}
+
+class BackoffTable extends SemaphoreTable {
+    private static final long MIN_BACKOFF_NANOS = 1_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+    BackoffTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+        super(philosophers, observer, watchdog);
+    }
+
+    @Override
+    public void pickUpForks(int philosopher) throws InterruptedException {
+        int left = leftFork(philosopher);
+        int right = rightFork(philosopher);
+        long backoff = MIN_BACKOFF_NANOS;
+        try {
+            while (true) {
+                acquire(philosopher, left);
+                if (forks[right].tryAcquire()) {
+                    if (watchdog != null) watchdog.acquired(philosopher, right);
+                    if (observer != null) observer.onForkUpdate(right, true);
+                    return;
+                }
+                release(philosopher, left);
+
+                // Randomized exponential backoff so neighbours do not retry in lockstep
+                if (watchdog != null) watchdog.waiting(philosopher, Watchdog.UNTRACKED);
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoff) + 1);
+                if (Thread.interrupted()) throw new InterruptedException();
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+        } finally {
+            doneWaiting(philosopher);
+        }
+    }
+}
+
+/*
+  Chandy–Misra hygienic forks, with the request messages replaced by shared
+  fork state.
+
+  Each fork always belongs to one of its two philosophers and is either clean
+  or dirty. Eating makes both forks dirty. A hungry philosopher takes a fork
+  from its neighbour only when that fork is dirty and not being eaten with,
+  and cleans it; a clean fork stays with its owner until the owner has eaten.
+  Initially every fork is dirty and belongs to the lower-numbered philosopher,
+  so the precedence graph starts acyclic and no philosopher starves.
+ */
+class ChandyMisraTable implements DiningTable {
+    // Lock and condition rather than synchronized/wait so waiting virtual threads do not pin their carrier
+    private static final class Fork {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition released = lock.newCondition();
+        int owner;
+        boolean dirty = true;
+        boolean inUse;
+    }
+
+    private final Fork[] forks;
+    private final SimulationObserver observer;
+    private final Watchdog watchdog;
+
+    ChandyMisraTable(int philosophers, SimulationObserver observer, Watchdog watchdog) {
+        if (philosophers < 2) throw new IllegalArgumentException("need at least two philosophers: " + philosophers);
+        this.forks = new Fork[philosophers];
+        for (int i = 0; i < philosophers; i++) {
+            forks[i] = new Fork();
+            // Fork i lies between philosophers i - 1 and i
+            forks[i].owner = Math.min(i, (i - 1 + philosophers) % philosophers);
+        }
+        this.observer = observer;
+        this.watchdog = watchdog;
+    }
+
+    // For tests
+    int ownerOf(int fork) {
+        Fork f = forks[fork];
+        f.lock.lock();
+        try {
+            return f.owner;
+        } finally {
+            f.lock.unlock();
+        }
+    }
+
+    @Override
+    public void pickUpForks(int philosopher) throws InterruptedException {
+        int left = philosopher;
+        int right = (philosopher + 1) % forks.length;
+        Fork first = forks[Math.min(left, right)];
+        Fork second = forks[Math.max(left, right)];
+        while (true) {
+            try {
+                obtain(left, philosopher);
+                obtain(right, philosopher);
+            } catch (InterruptedException e) {
+                // Leaving the table: give up our claim so the neighbours are not blocked by clean forks
+                yieldFork(forks[left], philosopher);
+                yieldFork(forks[right], philosopher);
+                if (watchdog != null) watchdog.doneWaiting(philosopher);
+                throw e;
+            }
+
+            // A dirty fork we already owned may have been handed over meanwhile
+            first.lock.lock();
+            second.lock.lock();
+            try {
+                if (first.owner == philosopher && second.owner == philosopher) {
+                    first.inUse = true;
+                    second.inUse = true;
+                    // Only forks in use block the neighbours, so only those count as held
+                    if (watchdog != null) {
+                        watchdog.acquired(philosopher, left);
+                        watchdog.acquired(philosopher, right);
+                        watchdog.doneWaiting(philosopher);
+                    }
+                    break;
+                }
+            } finally {
+                second.lock.unlock();
+                first.lock.unlock();
+            }
+        }
+        if (observer != null) {
+            observer.onForkUpdate(left, true);
+            observer.onForkUpdate(right, true);
+        }
+    }
+
+    @Override
+    public void putDownForks(int philosopher) {
+        int left = philosopher;
+        int right = (philosopher + 1) % forks.length;
+        if (watchdog != null) {
+            watchdog.released(philosopher, left);
+            watchdog.released(philosopher, right);
+        }
+        release(forks[left]);
+        release(forks[right]);
+        if (observer != null) {
+            observer.onForkUpdate(right, false);
+            observer.onForkUpdate(left, false);
+        }
+    }
+
+    // Waits until the fork belongs to the philosopher, taking it over once the neighbour must give it up
+    private void obtain(int index, int philosopher) throws InterruptedException {
+        Fork fork = forks[index];
+        if (watchdog != null) watchdog.waiting(philosopher, index);
+        fork.lock.lockInterruptibly();
+        try {
+            while (fork.owner != philosopher) {
+                if (fork.dirty && !fork.inUse) {
+                    fork.owner = philosopher;
+                    fork.dirty = false;
+                } else {
+                    fork.released.await();
+                }
+            }
+        } finally {
+            fork.lock.unlock();
+        }
+    }
+
+    private void yieldFork(Fork fork, int philosopher) {
+        fork.lock.lock();
+        try {
+            if (fork.owner == philosopher) {
+                fork.dirty = true;
+                fork.released.signal();
+            }
+        } finally {
+            fork.lock.unlock();
+        }
+    }
+
+    private void release(Fork fork) {
+        fork.lock.lock();
+        try {
+            fork.inUse = false;
+            fork.dirty = true;
+            fork.released.signal(); // only the other neighbour can be waiting
+        } finally {
+            fork.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.concurrency;
+
+import java.io.PrintStream;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+  Asynchronous console log for the simulations.
+
+  Actors record an event as a few ints in a preallocated EventRing, which is
+  cheap enough to do while holding a lock and never blocks. A daemon writer
+  thread formats and prints the events outside every critical section, so
+  stdout no longer serializes the simulations or inflates their wait times.
+
+  Events below the current level are discarded before they reach the ring;
+  at OFF (or INFO, for per-operation events) logging costs one volatile read.
+  The initial level comes from the simulation.log property, INFO by default.
+ */
+public final class EventLog {
+    public enum Level { OFF, INFO, TRACE }
+
+    /** Event kinds; the actor index is printed 1-based after the actor prefix */
+    enum Event {
+        PRODUCED(Level.TRACE, "Producer", "produced: %d | Buffer size: %d"),
+        CONSUMED(Level.TRACE, "Consumer", "consumed: %d | Buffer size: %d"),
+        PRODUCED_BATCH(Level.TRACE, "Producer", "produced %d values | Buffer size: %d"),
+        CONSUMED_BATCH(Level.TRACE, "Consumer", "consumed %d values | Buffer size: %d"),
+        PRODUCER_STOPPED(Level.INFO, "Producer", "stopped."),
+        CONSUMER_STOPPED(Level.INFO, "Consumer", "stopped."),
+        THINKING(Level.TRACE, "Philosopher", "is thinking."),
+        EATING(Level.TRACE, "Philosopher", "is eating."),
+        PHILOSOPHER_STOPPED(Level.INFO, "Philosopher", "stopped."),
+        READ_STARTED(Level.TRACE, "Reader", "started reading. Readers = %d"),
+        READ_FINISHED(Level.TRACE, "Reader", "finished reading. Readers = %d"),
+        READ_VALUE(Level.TRACE, "Reader", "reads value: %d"),
+        READER_STOPPED(Level.INFO, "Reader", "stopped."),
+        WRITE_STARTED(Level.TRACE, "Writer", "started writing."),
+        WRITE_FINISHED(Level.TRACE, "Writer", "finished writing."),
+        WRITE_VALUE(Level.TRACE, "Writer", "writes value: %d"),
+        WRITER_STOPPED(Level.INFO, "Writer", "stopped."),
+        STILL_STOPPING(Level.INFO, "Simulation", "still stopping after %d ms.");
+
+        final Level level;
+        final String actor;
+        final String format;
+
+        Event(Level level, String actor, String format) {
+            this.level = level;
+            this.actor = actor;
+            this.format = format;
+        }
+    }
+
+    private static final Event[] EVENTS = Event.values();
+    private static final long IDLE_PARK_NANOS = 5_000_000;
+
+    private static final EventRing ring = new EventRing(1 << 16);
+    private static final ReentrantLock drainLock = new ReentrantLock();
+    private static volatile Level level = initialLevel();
+    private static volatile PrintStream output; // null means the current System.out
+    private static volatile Thread writer;
+
+    private EventLog() {
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    /** Redirects the log; null writes to whatever System.out is at flush time */
+    public static void setOutput(PrintStream out) {
+        output = out;
+    }
+
+    static boolean isEnabled(Level eventLevel) {
+        return eventLevel.ordinal() <= level.ordinal();
+    }
+
+    static void log(Event event, int actor) {
+        log(event, actor, 0, 0);
+    }
+
+    static void log(Event event, int actor, int a) {
+        log(event, actor, a, 0);
+    }
+
+    /** Records the event if its level is enabled; never blocks, drops the event if the ring is full */
+    static void log(Event event, int actor, int a, int b) {
+        if (!isEnabled(event.level)) return;
+        if (writer == null) startWriter();
+        ring.publish(event.ordinal(), actor, a, b);
+    }
+
+    /** Prints everything logged so far; call before reporting results */
+    public static void flush() {
+        drainLock.lock();
+        try {
+            PrintStream out = output != null ? output : System.out;
+            ring.drain((type, actor, a, b) -> out.println(format(EVENTS[type], actor, a, b)));
+            out.flush();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /** Events lost because the writer fell behind */
+    public static long getDroppedEvents() {
+        return ring.getDroppedEvents();
+    }
+
+    static String format(Event event, int actor, int a, int b) {
+        String label = actor >= 0 ? event.actor + "-" + (actor + 1) : event.actor;
+        return label + " " + String.format(event.format, a, b);
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) return;
+        Thread t = new Thread(() -> {
+            while (true) {
+                flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }, "EventLog-writer");
+        t.setDaemon(true);
+        t.start();
+        writer = t;
+    }
+
+    private static Level initialLevel() {
+        String configured = System.getProperty("simulation.log");
+        if (configured == null) return Level.INFO;
+        try {
+            return Level.valueOf(configured.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
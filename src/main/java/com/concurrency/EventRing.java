@@ -0,0 +1,90 @@
+package com.concurrency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+  Preallocated multi-producer, single-consumer ring of primitive event records.
+
+  Every record is four ints (type plus three arguments) stored in parallel
+  arrays, so publishing never allocates. Producers claim a slot by CAS on the
+  padded tail and publish it through the slot's sequence number; the single
+  consumer walks the slots in order. A full ring drops the event instead of
+  blocking the publisher, and counts the drop.
+ */
+final class EventRing {
+    /** Receives drained records on the consumer thread */
+    interface Handler {
+        void onEvent(int type, int a, int b, int c);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final int[] args;
+    private final AtomicLongArray sequences;
+    private final PaddedSequence tail = new PaddedSequence(0);
+    private final LongAdder dropped = new LongAdder();
+    private long head; // only touched by the consumer
+
+    /** @param capacity rounded up to a power of two */
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.types = new int[size];
+        this.args = new int[size * 3];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Appends a record; returns false (and counts a drop) if the ring is full */
+    boolean publish(int type, int a, int b, int c) {
+        long pos = tail.get();
+        while (true) {
+            long diff = sequences.get((int) pos & mask) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        int index = (int) pos & mask;
+        types[index] = type;
+        args[index * 3] = a;
+        args[index * 3 + 1] = b;
+        args[index * 3 + 2] = c;
+        sequences.lazySet(index, pos + 1);
+        return true;
+    }
+
+    /** Hands every published record to the handler in order; call from one thread only */
+    int drain(Handler handler) {
+        return drain(handler, Integer.MAX_VALUE);
+    }
+
+    int drain(Handler handler, int limit) {
+        int count = 0;
+        while (count < limit) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) break;
+            handler.onEvent(types[index], args[index * 3], args[index * 3 + 1], args[index * 3 + 2]);
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long getDroppedEvents() {
+        return dropped.sum();
+    }
+}
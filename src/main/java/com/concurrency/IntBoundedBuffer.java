@@ -0,0 +1,213 @@
+package com.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+
+/*
+  Blocking bounded buffer on a preallocated int array.
+
+  Same monitor as Buffer (one ReentrantLock, notFull/notEmpty conditions,
+  the same wake-up and stop() rules), but the elements live in a circular
+  int[] indexed by head and count instead of a LinkedList<Integer>, so an
+  operation allocates neither a list node nor a box.
+
+  How a full or empty buffer is waited for is up to the WaitStrategy; the
+  spinning strategies poll the volatile size mirror outside the lock.
+ */
+class IntBoundedBuffer implements BoundedBuffer {
+    private final int[] values;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final PerformanceMetrics metrics;
+    private final SimulationObserver observer;
+    private final Waiter notFullWaiter;
+    private final Waiter notEmptyWaiter;
+    private int head;               // index of the oldest element; guarded by lock
+    private int count;              // guarded by lock
+    private volatile int size;      // mirrors count for lock-free readers
+    private volatile boolean running = true;
+    // Hoisted so waiting allocates nothing
+    private final BooleanSupplier mayProduce;
+    private final BooleanSupplier mayConsume;
+
+    IntBoundedBuffer(int capacity, PerformanceMetrics metrics, SimulationObserver observer) {
+        this(capacity, metrics, observer, WaitStrategy.BLOCKING);
+    }
+
+    IntBoundedBuffer(int capacity, PerformanceMetrics metrics, SimulationObserver observer, WaitStrategy waitStrategy) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.values = new int[capacity];
+        this.metrics = metrics;
+        this.observer = observer;
+        this.notFullWaiter = waitStrategy.newWaiter(metrics);
+        this.notEmptyWaiter = waitStrategy.newWaiter(metrics);
+        this.mayProduce = () -> size < capacity || !running;
+        this.mayConsume = () -> size > 0 || !running;
+    }
+
+    @Override
+    public void produce(int producer) throws InterruptedException {
+        if (observer != null) observer.onProducerState(producer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        lock.lock();
+        try {
+            awaitNotFull();
+            metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, producer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onProducerState(producer, ActorState.PRODUCING);
+            int value = ThreadLocalRandom.current().nextInt(100);
+            add(value);
+            EventLog.log(EventLog.Event.PRODUCED, producer, value, count);
+            if (observer != null) observer.onBufferUpdate(count, capacity);
+
+            metrics.addOperation(PerformanceMetrics.Role.PRODUCER, producer);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+            if (observer != null) observer.onProducerState(producer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public void consume(int consumer) throws InterruptedException {
+        if (observer != null) observer.onConsumerState(consumer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        lock.lock();
+        try {
+            awaitNotEmpty();
+            metrics.recordWaitTime(PerformanceMetrics.Role.CONSUMER, consumer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onConsumerState(consumer, ActorState.CONSUMING);
+            int value = remove();
+            EventLog.log(EventLog.Event.CONSUMED, consumer, value, count);
+            if (observer != null) observer.onBufferUpdate(count, capacity);
+
+            metrics.addOperation(PerformanceMetrics.Role.CONSUMER, consumer);
+            notFull.signal();
+        } finally {
+            lock.unlock();
+            if (observer != null) observer.onConsumerState(consumer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public int produceBatch(int producer, int[] src, int off, int len) throws InterruptedException {
+        BoundedBuffer.checkBatch(src.length, off, len);
+        if (observer != null) observer.onProducerState(producer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        lock.lock();
+        try {
+            awaitNotFull();
+            metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, producer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onProducerState(producer, ActorState.PRODUCING);
+            int n = Math.min(len, capacity - count);
+            // At most two contiguous runs: up to the end of the array, then from its start
+            int tail = (head + count) % capacity;
+            int first = Math.min(n, capacity - tail);
+            System.arraycopy(src, off, values, tail, first);
+            System.arraycopy(src, off + first, values, 0, n - first);
+            count += n;
+            size = count;
+            EventLog.log(EventLog.Event.PRODUCED_BATCH, producer, n, count);
+            if (observer != null) observer.onBufferUpdate(count, capacity);
+
+            metrics.addOperations(PerformanceMetrics.Role.PRODUCER, producer, n);
+            // One signal per batch; a consumer that leaves elements behind passes it on
+            notEmpty.signal();
+            if (count < capacity) notFull.signal();
+            return n;
+        } finally {
+            lock.unlock();
+            if (observer != null) observer.onProducerState(producer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public int drainTo(int consumer, int[] dst, int max) throws InterruptedException {
+        BoundedBuffer.checkBatch(dst.length, 0, max);
+        if (observer != null) observer.onConsumerState(consumer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        lock.lock();
+        try {
+            awaitNotEmpty();
+            metrics.recordWaitTime(PerformanceMetrics.Role.CONSUMER, consumer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onConsumerState(consumer, ActorState.CONSUMING);
+            int n = Math.min(max, count);
+            int first = Math.min(n, capacity - head);
+            System.arraycopy(values, head, dst, 0, first);
+            System.arraycopy(values, 0, dst, first, n - first);
+            head = (head + n) % capacity;
+            count -= n;
+            size = count;
+            EventLog.log(EventLog.Event.CONSUMED_BATCH, consumer, n, count);
+            if (observer != null) observer.onBufferUpdate(count, capacity);
+
+            metrics.addOperations(PerformanceMetrics.Role.CONSUMER, consumer, n);
+            notFull.signal();
+            if (count > 0) notEmpty.signal();
+            return n;
+        } finally {
+            lock.unlock();
+            if (observer != null) observer.onConsumerState(consumer, ActorState.IDLE);
+        }
+    }
+
+    private void awaitNotFull() throws InterruptedException {
+        while (count == capacity && running) {
+            notFullWaiter.await(lock, notFull, mayProduce);
+        }
+        if (!running) throw new InterruptedException();
+    }
+
+    private void awaitNotEmpty() throws InterruptedException {
+        while (count == 0 && running) {
+            notEmptyWaiter.await(lock, notEmpty, mayConsume);
+        }
+        if (!running) throw new InterruptedException();
+    }
+
+    private void add(int value) {
+        int tail = head + count;
+        values[tail < capacity ? tail : tail - capacity] = value;
+        size = ++count;
+    }
+
+    private int remove() {
+        int value = values[head];
+        head = head + 1 == capacity ? 0 : head + 1;
+        size = --count;
+        return value;
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            notFull.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
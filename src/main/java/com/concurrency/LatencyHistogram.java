@@ -0,0 +1,126 @@
+package com.concurrency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/*
+  Fixed-memory log-linear histogram of non-negative long values (nanoseconds).
+
+  Values below 128 get one bucket each; above that every power of two is
+  split into 64 linear sub-buckets, so any recorded value is reported within
+  about 1.6% of its true value across the whole long range (3712 buckets).
+
+  Recording never locks or allocates: each thread counts into the recorder of
+  its stripe (chosen by thread id) and the stripes are summed when read.
+  Stripe recorders are created on first use, so memory is bounded by the
+  stripe count no matter how many threads record.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicReferenceArray<AtomicLongArray> recorders = new AtomicReferenceArray<>(STRIPES);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        recorder().getAndIncrement(indexOf(value));
+        max.accumulate(value);
+    }
+
+    /** Merged bucket counts across all stripes */
+    long[] counts() {
+        long[] merged = new long[BUCKET_COUNT];
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = recorders.get(s);
+            if (stripe == null) continue;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] += stripe.get(i);
+            }
+        }
+        return merged;
+    }
+
+    /** Restarts max tracking; a value recorded concurrently may or may not survive */
+    void resetMax() {
+        max.reset();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Value at the given percentile (0-100] of the distribution described by counts,
+     * reported as the highest value equivalent to its bucket but never above the
+     * recorded max, so no percentile exceeds the max reported next to it.
+     */
+    static long valueAtPercentile(long[] counts, double percentile, long max) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(highestEquivalentValue(i), max);
+        }
+        return Math.min(highestEquivalentValue(counts.length - 1), max);
+    }
+
+    /**
+     * Max of a distribution whose exact max is unknown, such as the difference
+     * of two snapshots: the top of its highest non-empty bucket, capped by an
+     * upper bound such as the max of the whole run.
+     */
+    static long highestRecorded(long[] counts, long upperBound) {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) return Math.min(highestEquivalentValue(i), upperBound);
+        }
+        return 0;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift); // in [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return subBucket << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long highest = lowestEquivalentValue(index) + (1L << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+
+    private AtomicLongArray recorder() {
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        AtomicLongArray recorder = recorders.get(stripe);
+        if (recorder == null) {
+            recorders.compareAndSet(stripe, null, new AtomicLongArray(BUCKET_COUNT));
+            recorder = recorders.get(stripe);
+        }
+        return recorder;
+    }
+
+    private static int stripeCount() {
+        int target = Math.min(64, Runtime.getRuntime().availableProcessors() * 2);
+        return Integer.highestOneBit(Math.max(1, target - 1)) << 1;
+    }
+}
@@ -1,10 +1,22 @@
 package com.concurrency;
 
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class Main {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("trace")) {
+            System.exit(TraceCli.run(Arrays.copyOfRange(args, 1, args.length), System.out, System.err));
+        }
+        // Any arguments select the scriptable runner instead of the menu
+        if (args.length > 0) {
+            System.exit(SimulationCli.run(args, System.out, System.err));
+        }
+
+        // The interactive demo narrates every operation unless -Dsimulation.log says otherwise
+        if (System.getProperty("simulation.log") == null) EventLog.setLevel(EventLog.Level.TRACE);
+
         try (Scanner scanner = new Scanner(System.in)) {
             int choice = -1;
             long simulationDuration = 5000; // 5 seconds
@@ -0,0 +1,164 @@
+package com.concurrency;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of a PerformanceMetrics instance.
+ * Each counter is read once when the snapshot is taken, so every getter
+ * reports against the same numbers even while the simulation keeps running.
+ */
+public final class MetricsSnapshot {
+    /** Queue depth reported by simulations without a queue */
+    public static final int NO_QUEUE = -1;
+    /** CPU time of runs whose thread CPU time could not be measured */
+    public static final long NO_CPU_TIME = -1;
+    /** Shutdown time of runs that have not stopped yet */
+    public static final long NO_SHUTDOWN = -1;
+
+    private final long totalOperations;
+    private final long totalWaitTime; // in nanoseconds
+    private final long elapsedNanos;
+    private final long[] waitTimeCounts;
+    private final long maxWaitTime; // in nanoseconds
+    private final long[] counters; // indexed by PerformanceMetrics.Counter ordinal
+    private final long warmupNanos;
+    private final boolean steadyState;
+    private final int queueDepth;
+    private final long cpuTimeNanos;
+    private final long shutdownNanos;
+    private final RoleSnapshot[] roles; // indexed by PerformanceMetrics.Role ordinal, null if not registered
+    private final List<String> findings;
+
+    MetricsSnapshot(long totalOperations, long totalWaitTime, long elapsedNanos, long[] waitTimeCounts, long maxWaitTime,
+                    long[] counters, long warmupNanos, boolean steadyState, int queueDepth, long cpuTimeNanos,
+                    long shutdownNanos, RoleSnapshot[] roles, List<String> findings) {
+        this.totalOperations = totalOperations;
+        this.totalWaitTime = totalWaitTime;
+        this.elapsedNanos = elapsedNanos;
+        this.waitTimeCounts = waitTimeCounts;
+        this.maxWaitTime = maxWaitTime;
+        this.counters = counters;
+        this.warmupNanos = warmupNanos;
+        this.steadyState = steadyState;
+        this.queueDepth = queueDepth;
+        this.cpuTimeNanos = cpuTimeNanos;
+        this.shutdownNanos = shutdownNanos;
+        this.roles = roles;
+        this.findings = findings;
+    }
+
+    /**
+     * Metrics of the interval between an earlier snapshot of the same run and
+     * this one: rolling throughput and wait-time percentiles come from here.
+     * The max is the top of the highest bucket hit in the interval.
+     */
+    public MetricsSnapshot since(MetricsSnapshot earlier) {
+        long[] counts = new long[waitTimeCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = waitTimeCounts[i] - earlier.waitTimeCounts[i];
+        }
+        long max = LatencyHistogram.highestRecorded(counts, maxWaitTime);
+        long[] deltas = new long[counters.length];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = counters[i] - earlier.counters[i];
+        }
+        RoleSnapshot[] roleDeltas = new RoleSnapshot[roles.length];
+        for (int r = 0; r < roles.length; r++) {
+            if (roles[r] != null && earlier.roles[r] != null) roleDeltas[r] = roles[r].since(earlier.roles[r]);
+        }
+        return new MetricsSnapshot(totalOperations - earlier.totalOperations, totalWaitTime - earlier.totalWaitTime,
+                elapsedNanos - earlier.elapsedNanos, counts, max, deltas, warmupNanos, steadyState, queueDepth,
+                cpuTimeNanos >= 0 && earlier.cpuTimeNanos >= 0 ? cpuTimeNanos - earlier.cpuTimeNanos : NO_CPU_TIME,
+                shutdownNanos, roleDeltas, findings);
+    }
+
+    public long getTotalOperations() {
+        return totalOperations;
+    }
+
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getDurationSeconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+
+    public double getThroughput() {
+        double duration = getDurationSeconds();
+        return duration > 0 ? totalOperations / duration : 0;
+    }
+
+    public double getAverageWaitTime() { // in milliseconds
+        return totalOperations > 0 ? (totalWaitTime / 1_000_000.0) / totalOperations : 0;
+    }
+
+    /** Wait time at the given percentile (0-100], in milliseconds */
+    public double getWaitTimePercentile(double percentile) {
+        return LatencyHistogram.valueAtPercentile(waitTimeCounts, percentile, maxWaitTime) / 1_000_000.0;
+    }
+
+    public double getMaxWaitTime() { // in milliseconds
+        return maxWaitTime / 1_000_000.0;
+    }
+
+    public long getCount(PerformanceMetrics.Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    /** Time the run spent warming up before measurement started */
+    public long getWarmupNanos() {
+        return warmupNanos;
+    }
+
+    /** Per-actor breakdown of a role, or null if the simulation did not register that role */
+    public RoleSnapshot getRole(PerformanceMetrics.Role role) {
+        return roles[role.ordinal()];
+    }
+
+    /** Whether steady-state detection saw throughput settle before measurement started */
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    /** Queue depth when the snapshot was taken, or NO_QUEUE */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * CPU time the simulation threads used while measured, or NO_CPU_TIME.
+     * Only known once the run has finished; spinning wait strategies show up here.
+     */
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+
+    /** Time from asking the actors to stop until the last one finished, or NO_SHUTDOWN while running */
+    public long getShutdownNanos() {
+        return shutdownNanos;
+    }
+
+    /**
+     * The watchdog's latest deadlock and starvation reports, oldest first, for
+     * the whole run so far (also in a since() window). At most 100 are kept;
+     * the DEADLOCKS and STARVED_WAITS counters count all of them.
+     */
+    public List<String> getWatchdogFindings() {
+        return findings;
+    }
+
+    /** Average number of cores kept busy, or -1 if the CPU time is unknown */
+    public double getCpuUtilization() {
+        return cpuTimeNanos >= 0 && elapsedNanos > 0 ? (double) cpuTimeNanos / elapsedNanos : -1;
+    }
+
+    /** CPU time per operation in microseconds, or -1 if unknown */
+    public double getCpuTimePerOperation() {
+        return cpuTimeNanos >= 0 && totalOperations > 0 ? cpuTimeNanos / 1_000.0 / totalOperations : -1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.concurrency;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/*
+  A long sequence counter that sits alone on its cache line(s).
+  The padding fields on either side keep head and tail counters of a ring
+  buffer from sharing a line, so producers and consumers don't invalidate
+  each other's caches on every claim.
+ */
+abstract class SequenceLhsPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    volatile long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
+
+final class PaddedSequence extends SequenceRhsPadding {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    PaddedSequence(long initial) {
+        value = initial;
+    }
+
+    long get() {
+        return value;
+    }
+
+    /** Ordered store; enough when only one thread ever advances the sequence */
+    void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+}
@@ -1,14 +1,96 @@
 package com.concurrency;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
 
+/*
+  Counters shared by every worker thread of a simulation.
+  They are striped (LongAdder) so concurrent updates land on different
+  cache lines instead of all hammering the same two fields.
+ */
 public class PerformanceMetrics {
-    private final AtomicLong totalOperations = new AtomicLong(0);
-    private final AtomicLong totalWaitTime = new AtomicLong(0); // in nanoseconds
-    private long startTime;
-    private long endTime;
+    /** Implementation-specific event counters, reported when non-zero */
+    public enum Counter {
+        OPTIMISTIC_READS,   // StampedLock reads that validated without locking
+        PESSIMISTIC_READS,  // reads that fell back to the read lock
+        SPURIOUS_WAKEUPS,   // waiters woken while they still could not proceed
+        SPIN_WAITS,         // waits that spun or yielded without parking
+        PARKED_WAITS,       // waits that parked on a condition
+        DEADLOCKS,          // wait-for cycles found by the watchdog
+        STARVED_WAITS       // waits the watchdog saw exceed the wait bound
+    }
+
+    /** Watchdog findings kept for the snapshots; older ones are only counted */
+    static final int MAX_FINDINGS = 100;
+
+    /** Kinds of actors broken down separately once registered with registerActors() */
+    public enum Role {
+        PRODUCER, CONSUMER, PHILOSOPHER, READER, WRITER
+    }
+
+    private final LongAdder untrackedOperations = new LongAdder(); // those not counted in a role's actor slots
+    private final LongAdder totalWaitTime = new LongAdder(); // in nanoseconds
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final ActorMetrics[] roles = new ActorMetrics[Role.values().length]; // null until registered
+    private volatile Baseline baseline = Baseline.ZERO;
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile long warmupNanos;
+    private volatile boolean steadyState;
+    private volatile IntSupplier queueDepthGauge;
+    private volatile long cpuTimeNanos = MetricsSnapshot.NO_CPU_TIME;
+    private volatile long shutdownNanos = MetricsSnapshot.NO_SHUTDOWN;
+    private volatile long actorsStoppedAt; // System.nanoTime() once the last actor finished, 0 before
+    private volatile List<String> findings = Collections.emptyList(); // replaced, never modified
+
+    /* Raw totals at start(); every reported number is measured from here */
+    private static final class Baseline {
+        static final Baseline ZERO = new Baseline(0, 0, new long[LatencyHistogram.BUCKET_COUNT],
+                new long[Counter.values().length], new RoleSnapshot[Role.values().length]);
+
+        final long operations; // untracked only
+        final long waitTime;
+        final long[] waitTimeCounts;
+        final long[] counters;
+        final RoleSnapshot[] roles; // null for roles registered after start()
 
+        Baseline(long operations, long waitTime, long[] waitTimeCounts, long[] counters, RoleSnapshot[] roles) {
+            this.operations = operations;
+            this.waitTime = waitTime;
+            this.waitTimeCounts = waitTimeCounts;
+            this.counters = counters;
+            this.roles = roles;
+        }
+    }
+
+    public PerformanceMetrics() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts the measured interval. Anything recorded before this call (thread
+     * startup, class loading, JIT warmup) is excluded from every reported number.
+     */
     public void start() {
+        long[] counts = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            counts[i] = counters[i].sum();
+        }
+        RoleSnapshot[] roleCounts = new RoleSnapshot[roles.length];
+        for (int r = 0; r < roles.length; r++) {
+            if (roles[r] != null) roleCounts[r] = roles[r].snapshot();
+        }
+        baseline = new Baseline(untrackedOperations.sum(), totalWaitTime.sum(), waitTimes.counts(), counts, roleCounts);
+        waitTimes.resetMax();
+        for (ActorMetrics role : roles) {
+            if (role != null) role.resetMax();
+        }
         startTime = System.nanoTime();
     }
 
@@ -16,42 +98,231 @@ public class PerformanceMetrics {
         endTime = System.nanoTime();
     }
 
+    /** Records how the run warmed up before start() was called */
+    void setWarmup(long nanos, boolean reachedSteadyState) {
+        warmupNanos = nanos;
+        steadyState = reachedSteadyState;
+    }
+
+    /** CPU time the actor threads used between start() and stop(), or NO_CPU_TIME */
+    void setCpuTime(long nanos) {
+        cpuTimeNanos = nanos;
+    }
+
+    /** Asking the actors to stop and the last one finishing, both System.nanoTime() */
+    void setShutdown(long startNanos, long endNanos) {
+        actorsStoppedAt = endNanos;
+        shutdownNanos = endNanos - startNanos;
+    }
+
+    /** When the last actor finished, or 0 while any may still run */
+    long getActorsStoppedAt() {
+        return actorsStoppedAt;
+    }
+
+    /** Current depth of the simulation's queue, read whenever a snapshot is taken; must not lock */
+    public void setQueueDepthGauge(IntSupplier gauge) {
+        queueDepthGauge = gauge;
+    }
+
+    /**
+     * Gives each of the role's actors its own slot, so operations and waits
+     * recorded with the role and actor index are also broken down per actor.
+     * Call before the actors start.
+     */
+    public void registerActors(Role role, int actors) {
+        roles[role.ordinal()] = new ActorMetrics(actors);
+    }
+
     public void addOperation() {
-        totalOperations.incrementAndGet();
+        untrackedOperations.increment();
+    }
+
+    public void addOperations(long count) {
+        untrackedOperations.add(count);
     }
 
     public void recordWaitTime(long nanoSeconds) {
-        totalWaitTime.addAndGet(nanoSeconds);
+        totalWaitTime.add(nanoSeconds);
+        waitTimes.record(nanoSeconds);
+    }
+
+    /** Counts an operation of the given actor; only call from the actor's own thread */
+    public void addOperation(Role role, int actor) {
+        addOperations(role, actor, 1);
+    }
+
+    /*
+      An operation of a registered actor is counted in its slot only; the
+      total is derived from the slots, so the role breakdown always adds up
+      to it, even in a snapshot taken while the actors run.
+     */
+    public void addOperations(Role role, int actor, long count) {
+        ActorMetrics slots = roles[role.ordinal()];
+        if (slots != null && slots.owns(actor)) {
+            slots.addOperations(actor, count);
+        } else {
+            untrackedOperations.add(count);
+        }
+    }
+
+    /** Records a wait of the given actor; only call from the actor's own thread */
+    public void recordWaitTime(Role role, int actor, long nanoSeconds) {
+        recordWaitTime(nanoSeconds);
+        ActorMetrics slots = roles[role.ordinal()];
+        if (slots != null && slots.owns(actor)) slots.recordWaitTime(actor, nanoSeconds);
+    }
+
+    /** Keeps a watchdog finding for the snapshots, dropping the oldest past MAX_FINDINGS */
+    synchronized void addFinding(String finding) {
+        List<String> latest = new ArrayList<>(findings);
+        if (latest.size() == MAX_FINDINGS) latest.remove(0);
+        latest.add(finding);
+        findings = Collections.unmodifiableList(latest);
+    }
+
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum() - baseline.counters[counter.ordinal()];
     }
 
     public long getTotalOperations() {
-        return totalOperations.get();
+        Baseline base = baseline;
+        long total = untrackedOperations.sum() - base.operations;
+        for (int r = 0; r < roles.length; r++) {
+            if (roles[r] == null) continue;
+            long operations = roles[r].totalOperations();
+            total += measuredFrom(base, r) ? operations - base.roles[r].getTotalOperations() : operations;
+        }
+        return total;
     }
 
     public long getTotalWaitTime() {
-        return totalWaitTime.get();
+        return totalWaitTime.sum() - baseline.waitTime;
     }
 
+    /** Zero if start() was never called, as when the run is stopped during its warmup */
     public double getDurationSeconds() {
-        return (endTime - startTime) / 1_000_000_000.0;
+        long start = startTime;
+        return start != 0 ? (endTime - start) / 1_000_000_000.0 : 0;
     }
 
     public double getThroughput() {
         double duration = getDurationSeconds();
-        return duration > 0 ? totalOperations.get() / duration : 0;
+        return duration > 0 ? getTotalOperations() / duration : 0;
     }
 
     public double getAverageWaitTime() { // in milliseconds
-        long ops = totalOperations.get();
-        return ops > 0 ? (totalWaitTime.get() / 1_000_000.0) / ops : 0;
+        long ops = getTotalOperations();
+        return ops > 0 ? (getTotalWaitTime() / 1_000_000.0) / ops : 0;
+    }
+
+    /** Wait time at the given percentile (0-100], in milliseconds */
+    public double getWaitTimePercentile(double percentile) {
+        return LatencyHistogram.valueAtPercentile(waitTimeCounts(baseline), percentile, waitTimes.getMax()) / 1_000_000.0;
+    }
+
+    public double getMaxWaitTime() { // in milliseconds
+        return waitTimes.getMax() / 1_000_000.0;
+    }
+
+    /**
+     * Immutable view of the metrics. Safe to call while the simulation is running:
+     * nothing is locked, and the duration runs up to now until stop() is called.
+     */
+    public MetricsSnapshot snapshot() {
+        Baseline base = baseline;
+        long start = startTime;
+        long end = endTime;
+        long elapsed = 0;
+        if (start != 0) elapsed = (end > start ? end : System.nanoTime()) - start;
+        long[] counts = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            counts[i] = counters[i].sum() - base.counters[i];
+        }
+        RoleSnapshot[] roleCounts = new RoleSnapshot[roles.length];
+        for (int r = 0; r < roles.length; r++) {
+            if (roles[r] == null) continue;
+            RoleSnapshot raw = roles[r].snapshot();
+            roleCounts[r] = measuredFrom(base, r) ? raw.since(base.roles[r]) : raw;
+        }
+        long operations = untrackedOperations.sum() - base.operations;
+        for (RoleSnapshot role : roleCounts) {
+            if (role != null) operations += role.getTotalOperations();
+        }
+        IntSupplier gauge = queueDepthGauge;
+        return new MetricsSnapshot(operations, totalWaitTime.sum() - base.waitTime, elapsed,
+                waitTimeCounts(base), waitTimes.getMax(), counts, warmupNanos, steadyState,
+                gauge != null ? gauge.getAsInt() : MetricsSnapshot.NO_QUEUE, cpuTimeNanos, shutdownNanos, roleCounts, findings);
+    }
+
+    // Whether the role's current slots were already registered when the baseline was taken
+    private boolean measuredFrom(Baseline base, int role) {
+        return base.roles[role] != null && base.roles[role].getActors() == roles[role].actors();
+    }
+
+    private long[] waitTimeCounts(Baseline base) {
+        long[] counts = waitTimes.counts();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= base.waitTimeCounts[i];
+        }
+        return counts;
+    }
+
+    /**
+     * Jain's fairness index of per-actor totals: 1.0 when every actor got the
+     * same share, down to 1/n when a single actor got everything.
+     */
+    public static double fairnessIndex(long[] values) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (long v : values) {
+            sum += v;
+            sumOfSquares += (double) v * v;
+        }
+        if (sumOfSquares == 0) return 1.0;
+        return sum * sum / (values.length * sumOfSquares);
     }
 
     public void printMetrics(String simulationName) {
+        MetricsSnapshot snapshot = snapshot();
         System.out.println("\n--- " + simulationName + " Performance Metrics ---");
-        System.out.println("Total Operations: " + getTotalOperations());
-        System.out.printf("Duration: %.2f seconds\n", getDurationSeconds());
-        System.out.printf("Throughput: %.2f ops/sec\n", getThroughput());
-        System.out.printf("Average Wait Time: %.2f ms\n", getAverageWaitTime());
+        System.out.println("Total Operations: " + snapshot.getTotalOperations());
+        System.out.printf("Duration: %.2f seconds\n", snapshot.getDurationSeconds());
+        if (snapshot.getWarmupNanos() > 0) {
+            System.out.printf("Warmup: %.2f seconds%s\n", snapshot.getWarmupNanos() / 1_000_000_000.0,
+                    snapshot.isSteadyState() ? " (steady state reached)" : "");
+        }
+        System.out.printf("Throughput: %.2f ops/sec\n", snapshot.getThroughput());
+        System.out.printf("Average Wait Time: %.2f ms\n", snapshot.getAverageWaitTime());
+        if (snapshot.getCpuTimeNanos() != MetricsSnapshot.NO_CPU_TIME) {
+            System.out.printf("CPU Time: %.2f seconds (%.2f cores, %.2f us/op)\n", snapshot.getCpuTimeNanos() / 1_000_000_000.0,
+                    snapshot.getCpuUtilization(), snapshot.getCpuTimePerOperation());
+        }
+        if (snapshot.getShutdownNanos() != MetricsSnapshot.NO_SHUTDOWN) {
+            System.out.printf("Shutdown: %.3f ms\n", snapshot.getShutdownNanos() / 1_000_000.0);
+        }
+        System.out.printf("Wait Time p50/p90/p99/p99.9/max: %.3f / %.3f / %.3f / %.3f / %.3f ms\n",
+                snapshot.getWaitTimePercentile(50),
+                snapshot.getWaitTimePercentile(90),
+                snapshot.getWaitTimePercentile(99),
+                snapshot.getWaitTimePercentile(99.9),
+                snapshot.getMaxWaitTime());
+        for (Counter counter : Counter.values()) {
+            long count = snapshot.getCount(counter);
+            if (count > 0) System.out.println(counter + ": " + count);
+        }
+        for (Role role : Role.values()) {
+            RoleSnapshot r = snapshot.getRole(role);
+            if (r == null) continue;
+            System.out.printf("%s x%d: %d ops (min/max per actor %d / %d, Jain's fairness index %.3f), "
+                            + "wait avg/p99 %.3f / %.3f ms\n",
+                    role, r.getActors(), r.getTotalOperations(), r.getMinOperations(), r.getMaxOperations(),
+                    r.getFairnessIndex(), r.getAverageWaitTime(), r.getWaitTimePercentile(99));
+        }
         System.out.println("-------------------------------------------");
     }
 }
@@ -8,65 +8,116 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadFactory;
 
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+import com.concurrency.gui.StringObserverAdapter;
 import com.concurrency.gui.VisualizationObserver;
 
 public class ProducerConsumer {
+    /** Backing implementation of the shared buffer */
+    public enum BufferType {
+        LOCKING,               // int[] circular array guarded by a ReentrantLock and two conditions
+        LOCKING_LINKED_LIST,   // the original LinkedList<Integer> monitor, kept as a boxing baseline
+        RING_SINGLE_PRODUCER,  // lock-free ring buffer, runs with a single producer
+        RING_MULTI_PRODUCER    // lock-free ring buffer with CAS-claimed tail
+    }
+
     public static void run(long durationMillis) {
-        run(durationMillis, null);
+        run(durationMillis, (SimulationObserver) null);
     }
 
     public static void run(long durationMillis, VisualizationObserver observer) {
-        PerformanceMetrics metrics = new PerformanceMetrics();
-        Buffer buffer = new Buffer(5, metrics, observer); // Capacity 5
+        run(durationMillis, StringObserverAdapter.adapt(observer));
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer) {
+        run(durationMillis, observer, BufferType.LOCKING);
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer, BufferType bufferType) {
+        run(durationMillis, observer, bufferType, SimulationThreads.defaultFactory());
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer, BufferType bufferType, ThreadFactory threadFactory) {
+        // The single-producer ring relies on exactly one thread advancing its tail
+        run(SimulationConfig.builder(SimulationConfig.Simulation.PRODUCER_CONSUMER)
+                .durationMillis(durationMillis)
+                .bufferType(bufferType)
+                .producers(bufferType == BufferType.RING_SINGLE_PRODUCER ? 1 : 2)
+                .threadFactory(threadFactory)
+                .build(), observer);
+    }
+
+    public static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer) {
+        return run(config, observer, new PerformanceMetrics());
+    }
+
+    /** Records into the given metrics, so a caller can sample them while the run is in progress */
+    public static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer, PerformanceMetrics metrics) {
+        BoundedBuffer buffer = createBuffer(config.getBufferType(), config.getCapacity(), metrics, observer,
+                config.getWaitStrategy());
+        metrics.setQueueDepthGauge(buffer::size);
+        metrics.registerActors(PerformanceMetrics.Role.PRODUCER, config.getProducers());
+        metrics.registerActors(PerformanceMetrics.Role.CONSUMER, config.getConsumers());
         List<Thread> threads = new ArrayList<>();
 
-        for (int i = 1; i <= 2; i++) {
-            Thread t = new Thread(new Producer(buffer, "Producer-" + i));
-            threads.add(t);
-            t.start();
+        for (int i = 0; i < config.getProducers(); i++) {
+            threads.add(SimulationThreads.start(config.getThreadFactory(), new Producer(buffer, i, config), "Producer-" + (i + 1)));
         }
-
-        for (int i = 1; i <= 3; i++) {
-            Thread t = new Thread(new Consumer(buffer, "Consumer-" + i));
-            threads.add(t);
-            t.start();
+        for (int i = 0; i < config.getConsumers(); i++) {
+            threads.add(SimulationThreads.start(config.getThreadFactory(), new Consumer(buffer, i, config), "Consumer-" + (i + 1)));
         }
 
-        metrics.start();
-        try { Thread.sleep(durationMillis); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        return SimulationRunner.measure(config, metrics, threads, buffer::stop, "Producer-Consumer");
+    }
+
+    static BoundedBuffer createBuffer(BufferType type, int capacity, PerformanceMetrics metrics, SimulationObserver observer) {
+        return createBuffer(type, capacity, metrics, observer, WaitStrategy.BLOCKING);
+    }
 
-        buffer.stop();
-        for (Thread t : threads) {
-            try { t.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    /** The wait strategy applies to LOCKING; the other buffers keep their own waiting */
+    static BoundedBuffer createBuffer(BufferType type, int capacity, PerformanceMetrics metrics, SimulationObserver observer,
+                                      WaitStrategy waitStrategy) {
+        switch (type) {
+            case RING_SINGLE_PRODUCER:
+                return RingBuffer.singleProducer(capacity, metrics, observer);
+            case RING_MULTI_PRODUCER:
+                return RingBuffer.multiProducer(capacity, metrics, observer);
+            case LOCKING_LINKED_LIST:
+                return new Buffer(capacity, metrics, observer);
+            case LOCKING:
+            default:
+                return new IntBoundedBuffer(capacity, metrics, observer, waitStrategy);
         }
-        metrics.stop();
-        metrics.printMetrics("Producer-Consumer");
     }
 }
 
-class Buffer {
+class Buffer implements BoundedBuffer {
     private final Queue<Integer> queue = new LinkedList<>();
     private final int capacity;
     private final Lock lock = new ReentrantLock();
     private final Condition notFull = lock.newCondition();
     private final Condition notEmpty = lock.newCondition();
     private final PerformanceMetrics metrics;
-    private final VisualizationObserver observer;
+    private final SimulationObserver observer;
+    private volatile int size; // mirrors queue.size() for lock-free readers
     private volatile boolean running = true;
 
     public Buffer(int capacity, PerformanceMetrics metrics) {
         this(capacity, metrics, null);
     }
 
-    public Buffer(int capacity, PerformanceMetrics metrics, VisualizationObserver observer) {
+    public Buffer(int capacity, PerformanceMetrics metrics, SimulationObserver observer) {
         this.capacity = capacity;
         this.metrics = metrics;
         this.observer = observer;
     }
 
-    public void produce(String name) throws InterruptedException {
-        if (observer != null) observer.onProducerState(name, "WAITING");
+    @Override
+    public void produce(int producer) throws InterruptedException {
+        if (observer != null) observer.onProducerState(producer, ActorState.WAITING);
         long startWait = System.nanoTime();
         lock.lock();
         try {
@@ -74,24 +125,26 @@ class Buffer {
                 notFull.await();
             }
             if (!running) throw new InterruptedException();
-            metrics.recordWaitTime(System.nanoTime() - startWait);
+            metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, producer, System.nanoTime() - startWait);
 
-            if (observer != null) observer.onProducerState(name, "PRODUCING");
+            if (observer != null) observer.onProducerState(producer, ActorState.PRODUCING);
             int value = ThreadLocalRandom.current().nextInt(100);
             queue.add(value);
-            System.out.println(name + " produced: " + value + " | Buffer size: " + queue.size());
+            size = queue.size();
+            EventLog.log(EventLog.Event.PRODUCED, producer, value, queue.size());
             if (observer != null) observer.onBufferUpdate(queue.size(), capacity);
 
-            metrics.addOperation();
+            metrics.addOperation(PerformanceMetrics.Role.PRODUCER, producer);
             notEmpty.signal();
         } finally {
             lock.unlock();
-            if (observer != null) observer.onProducerState(name, "IDLE");
+            if (observer != null) observer.onProducerState(producer, ActorState.IDLE);
         }
     }
 
-    public void consume(String name) throws InterruptedException {
-        if (observer != null) observer.onConsumerState(name, "WAITING");
+    @Override
+    public void consume(int consumer) throws InterruptedException {
+        if (observer != null) observer.onConsumerState(consumer, ActorState.WAITING);
         long startWait = System.nanoTime();
         lock.lock();
         try {
@@ -99,21 +152,88 @@ class Buffer {
                 notEmpty.await();
             }
             if (!running) throw new InterruptedException();
-            metrics.recordWaitTime(System.nanoTime() - startWait);
+            metrics.recordWaitTime(PerformanceMetrics.Role.CONSUMER, consumer, System.nanoTime() - startWait);
 
-            if (observer != null) observer.onConsumerState(name, "CONSUMING");
+            if (observer != null) observer.onConsumerState(consumer, ActorState.CONSUMING);
             int value = queue.poll();
-            System.out.println(name + " consumed: " + value + " | Buffer size: " + queue.size());
+            size = queue.size();
+            EventLog.log(EventLog.Event.CONSUMED, consumer, value, queue.size());
             if (observer != null) observer.onBufferUpdate(queue.size(), capacity);
 
-            metrics.addOperation();
+            metrics.addOperation(PerformanceMetrics.Role.CONSUMER, consumer);
             notFull.signal();
         } finally {
             lock.unlock();
-            if (observer != null) observer.onConsumerState(name, "IDLE");
+            if (observer != null) observer.onConsumerState(consumer, ActorState.IDLE);
         }
     }
 
+    @Override
+    public int produceBatch(int producer, int[] src, int off, int len) throws InterruptedException {
+        BoundedBuffer.checkBatch(src.length, off, len);
+        if (observer != null) observer.onProducerState(producer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        lock.lock();
+        try {
+            while (queue.size() == capacity && running) {
+                notFull.await();
+            }
+            if (!running) throw new InterruptedException();
+            metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, producer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onProducerState(producer, ActorState.PRODUCING);
+            int count = Math.min(len, capacity - queue.size());
+            for (int i = 0; i < count; i++) {
+                queue.add(src[off + i]);
+            }
+            size = queue.size();
+            EventLog.log(EventLog.Event.PRODUCED_BATCH, producer, count, queue.size());
+            if (observer != null) observer.onBufferUpdate(queue.size(), capacity);
+
+            metrics.addOperations(PerformanceMetrics.Role.PRODUCER, producer, count);
+            // One signal per batch; a consumer that leaves elements behind passes it on
+            notEmpty.signal();
+            if (queue.size() < capacity) notFull.signal();
+            return count;
+        } finally {
+            lock.unlock();
+            if (observer != null) observer.onProducerState(producer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public int drainTo(int consumer, int[] dst, int max) throws InterruptedException {
+        BoundedBuffer.checkBatch(dst.length, 0, max);
+        if (observer != null) observer.onConsumerState(consumer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        lock.lock();
+        try {
+            while (queue.isEmpty() && running) {
+                notEmpty.await();
+            }
+            if (!running) throw new InterruptedException();
+            metrics.recordWaitTime(PerformanceMetrics.Role.CONSUMER, consumer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onConsumerState(consumer, ActorState.CONSUMING);
+            int count = Math.min(max, queue.size());
+            for (int i = 0; i < count; i++) {
+                dst[i] = queue.poll();
+            }
+            size = queue.size();
+            EventLog.log(EventLog.Event.CONSUMED_BATCH, consumer, count, queue.size());
+            if (observer != null) observer.onBufferUpdate(queue.size(), capacity);
+
+            metrics.addOperations(PerformanceMetrics.Role.CONSUMER, consumer, count);
+            notFull.signal();
+            if (!queue.isEmpty()) notEmpty.signal();
+            return count;
+        } finally {
+            lock.unlock();
+            if (observer != null) observer.onConsumerState(consumer, ActorState.IDLE);
+        }
+    }
+
+    @Override
     public void stop() {
         lock.lock();
         try {
@@ -125,51 +245,79 @@ class Buffer {
         }
     }
 
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
     public boolean isRunning() {
         return running;
     }
 }
 
 class Producer implements Runnable {
-    private final Buffer buffer;
-    private final String name;
+    private final BoundedBuffer buffer;
+    private final int id;
+    private final SimulationConfig config;
 
-    public Producer(Buffer buffer, String name) {
+    public Producer(BoundedBuffer buffer, int id, SimulationConfig config) {
         this.buffer = buffer;
-        this.name = name;
+        this.id = id;
+        this.config = config;
     }
 
     @Override
     public void run() {
+        int batchSize = config.getBatchSize();
+        int[] batch = new int[batchSize];
         try {
             while (buffer.isRunning()) {
-                buffer.produce(name);
-                Thread.sleep(ThreadLocalRandom.current().nextInt(100) + 50);
+                if (batchSize == 1) {
+                    buffer.produce(id);
+                } else {
+                    // A batch may need several handoffs when consumers lag behind
+                    for (int i = 0; i < batchSize; i++) {
+                        batch[i] = ThreadLocalRandom.current().nextInt(100);
+                    }
+                    for (int off = 0; off < batchSize; ) {
+                        off += buffer.produceBatch(id, batch, off, batchSize - off);
+                    }
+                }
+                config.think();
             }
         } catch (InterruptedException e) {
-             System.out.println(name + " stopped.");
+            EventLog.log(EventLog.Event.PRODUCER_STOPPED, id);
         }
     }
 }
 
 class Consumer implements Runnable {
-    private final Buffer buffer;
-    private final String name;
+    private final BoundedBuffer buffer;
+    private final int id;
+    private final SimulationConfig config;
 
-    public Consumer(Buffer buffer, String name) {
+    public Consumer(BoundedBuffer buffer, int id, SimulationConfig config) {
         this.buffer = buffer;
-        this.name = name;
+        this.id = id;
+        this.config = config;
     }
 
     @Override
     public void run() {
+        int batchSize = config.getBatchSize();
+        int[] batch = new int[batchSize];
         try {
             while (buffer.isRunning()) {
-                buffer.consume(name);
-                Thread.sleep(ThreadLocalRandom.current().nextInt(100) + 50);
+                if (batchSize == 1) {
+                    buffer.consume(id);
+                } else {
+                    buffer.drainTo(id, batch, batchSize);
+                }
+                config.think();
             }
         } catch (InterruptedException e) {
-             System.out.println(name + " stopped.");
+            EventLog.log(EventLog.Event.CONSUMER_STOPPED, id);
         }
     }
 }
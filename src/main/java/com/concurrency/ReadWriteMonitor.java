@@ -0,0 +1,32 @@
+package com.concurrency;
+
+/**
+ * Guards the shared value of the Readers-Writers simulation.
+ * Any number of readers may be between startRead and endRead at once;
+ * a writer between startWrite and endWrite excludes everyone else.
+ */
+interface ReadWriteMonitor {
+    /** The shared value, as the watchdog's only resource */
+    int RESOURCE = 0;
+
+    void startRead(int reader) throws InterruptedException;
+    void endRead(int reader);
+    void startWrite(int writer) throws InterruptedException;
+    void endWrite(int writer);
+
+    int readData();
+    void writeData(int value);
+
+    /** Reads the shared value as one complete read section */
+    default int read(int reader) throws InterruptedException {
+        startRead(reader);
+        try {
+            return readData();
+        } finally {
+            endRead(reader);
+        }
+    }
+
+    void stop();
+    boolean isRunning();
+}
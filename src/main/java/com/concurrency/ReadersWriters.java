@@ -3,203 +3,418 @@ package com.concurrency;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+import com.concurrency.gui.StringObserverAdapter;
 import com.concurrency.gui.VisualizationObserver;
 
 /*
-  Monitor-based solution to the Readers–Writers problem.
+  Monitor-based solution to the Readers–Writers problem (lock + conditions).
   Multiple readers can read concurrently; writers have exclusive access.
   Console output visualizes thread activity.
  
   Author: Ebenezer Fuachie
  */
 public class ReadersWriters {
+    /** Synchronization used for the shared resource */
+    public enum MonitorType {
+        MONITOR,  // ReadersWritersMonitor, admission decided by a ReadersWritersPolicy
+        STAMPED   // StampedLock; readers take optimistic snapshots and skip the lock when no write interferes
+    }
 
     public static void run(long durationMillis) {
-        run(durationMillis, null);
+        run(durationMillis, (SimulationObserver) null);
     }
 
     public static void run(long durationMillis, VisualizationObserver observer) {
-        PerformanceMetrics metrics = new PerformanceMetrics();
-        ReadersWritersMonitor monitor = new ReadersWritersMonitor(metrics, observer);
+        run(durationMillis, StringObserverAdapter.adapt(observer));
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer) {
+        run(durationMillis, observer, ReadersWritersPolicy.READER_PREFERENCE);
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer, ReadersWritersPolicy policy) {
+        run(durationMillis, observer, policy, MonitorType.MONITOR);
+    }
+
+    /** The policy only applies to MonitorType.MONITOR */
+    public static void run(long durationMillis, SimulationObserver observer, ReadersWritersPolicy policy, MonitorType monitorType) {
+        run(durationMillis, observer, policy, monitorType, SimulationThreads.defaultFactory());
+    }
+
+    public static void run(long durationMillis, SimulationObserver observer, ReadersWritersPolicy policy, MonitorType monitorType,
+                           ThreadFactory threadFactory) {
+        run(SimulationConfig.builder(SimulationConfig.Simulation.READERS_WRITERS)
+                .durationMillis(durationMillis)
+                .policy(policy)
+                .monitorType(monitorType)
+                .threadFactory(threadFactory)
+                .build(), observer);
+    }
+
+    public static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer) {
+        return run(config, observer, new PerformanceMetrics());
+    }
+
+    /** Records into the given metrics, so a caller can sample them while the run is in progress */
+    public static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer, PerformanceMetrics metrics) {
+        boolean optimisticReads = config.getMonitorType() == MonitorType.STAMPED;
+        int readers = config.getReaders();
+        metrics.registerActors(PerformanceMetrics.Role.READER, readers);
+        metrics.registerActors(PerformanceMetrics.Role.WRITER, config.getWriters());
+        // Watchdog actors: the readers, then the writers
+        Watchdog watchdog = Watchdog.start(config, readers + config.getWriters(),
+                a -> a < readers ? "Reader-" + (a + 1) : "Writer-" + (a - readers + 1),
+                1, r -> "the shared resource", metrics, observer);
+        ReadWriteMonitor monitor = optimisticReads
+                ? new StampedReadersWritersMonitor(metrics, observer, watchdog, readers)
+                : new ReadersWritersMonitor(metrics, observer, config.getPolicy(), config.getWaitStrategy(), watchdog, readers);
         List<Thread> threads = new ArrayList<>();
 
-        // Start reader threads
-        for (int i = 1; i <= 3; i++) {
-            Thread t = new Thread(new Reader(monitor, "Reader-" + i, observer));
-            threads.add(t);
-            t.start();
+        for (int i = 0; i < config.getReaders(); i++) {
+            threads.add(SimulationThreads.start(config.getThreadFactory(),
+                    new Reader(monitor, i, optimisticReads, config), "Reader-" + (i + 1)));
         }
-
-        // Start writer threads
-        for (int i = 1; i <= 2; i++) {
-            Thread t = new Thread(new Writer(monitor, "Writer-" + i, observer));
-            threads.add(t);
-            t.start();
+        for (int i = 0; i < config.getWriters(); i++) {
+            threads.add(SimulationThreads.start(config.getThreadFactory(), new Writer(monitor, i, config), "Writer-" + (i + 1)));
         }
 
-        metrics.start();
         try {
-            Thread.sleep(durationMillis);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            return SimulationRunner.measure(config, metrics, threads, monitor::stop,
+                    "Readers-Writers (" + (optimisticReads ? config.getMonitorType() : config.getPolicy()) + ")");
+        } finally {
+            if (watchdog != null) watchdog.close();
         }
-
-        monitor.stop();
-        for (Thread t : threads) {
-            try {
-                t.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-        metrics.stop();
-        metrics.printMetrics("Readers-Writers");
     }
 }
 
-/** Monitor controlling access to shared resource */
-class ReadersWritersMonitor {
+/*
+  Monitor controlling access to the shared resource; who goes next is decided by its policy.
+
+  Readers and writers wait on separate conditions of one lock. Whoever changes
+  the admission state wakes only the side the policy would now admit: every
+  eligible reader at once, or a single writer. Threads that wake up and still
+  may not enter are counted as spurious wakeups.
+
+  The admission state is only consistent under the lock, so spinning waiters
+  poll a volatile count of admission changes instead and re-check the policy
+  under the lock whenever it moves.
+ */
+class ReadersWritersMonitor implements ReadWriteMonitor {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readersMayEnter = lock.newCondition();
+    private final Condition writerMayEnter = lock.newCondition();
     private int readers = 0;
     private boolean writerActive = false;
+    private int waitingReaders = 0;
+    private int waitingWriters = 0;
+    private long writePhase = 0;      // number of completed writes
+    private int pendingReadBatch = 0; // readers waiting at the last endWrite that have not entered yet
     private volatile int data = 0; // Shared resource (volatile for visibility)
+    private volatile long admissionChanges = 0; // bumped under the lock whenever waiters may now enter
     private final PerformanceMetrics metrics;
-    private final VisualizationObserver observer;
+    private final SimulationObserver observer;
+    private final ReadersWritersPolicy policy;
+    private final Waiter readerWaiter;
+    private final Waiter writerWaiter;
+    private final Watchdog watchdog;
+    private final int firstWriter; // watchdog actor of writer 0; readers come first
     private volatile boolean running = true;
 
     public ReadersWritersMonitor(PerformanceMetrics metrics) {
         this(metrics, null);
     }
 
-    public ReadersWritersMonitor(PerformanceMetrics metrics, VisualizationObserver observer) {
+    public ReadersWritersMonitor(PerformanceMetrics metrics, SimulationObserver observer) {
+        this(metrics, observer, ReadersWritersPolicy.READER_PREFERENCE);
+    }
+
+    public ReadersWritersMonitor(PerformanceMetrics metrics, SimulationObserver observer, ReadersWritersPolicy policy) {
+        this(metrics, observer, policy, WaitStrategy.BLOCKING);
+    }
+
+    ReadersWritersMonitor(PerformanceMetrics metrics, SimulationObserver observer, ReadersWritersPolicy policy,
+                          WaitStrategy waitStrategy) {
+        this(metrics, observer, policy, waitStrategy, null, 0);
+    }
+
+    ReadersWritersMonitor(PerformanceMetrics metrics, SimulationObserver observer, ReadersWritersPolicy policy,
+                          WaitStrategy waitStrategy, Watchdog watchdog, int firstWriter) {
         this.metrics = metrics;
         this.observer = observer;
+        this.policy = policy;
+        this.readerWaiter = waitStrategy.newWaiter(metrics);
+        this.writerWaiter = waitStrategy.newWaiter(metrics);
+        this.watchdog = watchdog;
+        this.firstWriter = firstWriter;
     }
 
-    public synchronized void startRead(String name) throws InterruptedException {
+    @Override
+    public void startRead(int reader) throws InterruptedException {
         long startWait = System.nanoTime();
-        if (observer != null) observer.onReaderState(name, "WAITING");
+        if (observer != null) observer.onReaderState(reader, ActorState.WAITING);
+        if (watchdog != null) watchdog.waiting(reader, RESOURCE);
+        try {
+            enterRead(reader, startWait);
+        } finally {
+            if (watchdog != null) watchdog.doneWaiting(reader);
+        }
+    }
 
-        while (writerActive && running) wait();
+    private void enterRead(int reader, long startWait) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long arrivalPhase = writePhase;
+            waitingReaders++;
+            try {
+                boolean woken = false;
+                while (!policy.readerMayEnter(this, arrivalPhase) && running) {
+                    if (woken) metrics.increment(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS);
+                    await(readerWaiter, readersMayEnter);
+                    woken = true;
+                }
+            } catch (InterruptedException e) {
+                // Leave the queue before passing on a wakeup we may have consumed, so
+                // signalNext() no longer counts us. A reader of the pending batch that
+                // gives up must not hold back the writers either.
+                waitingReaders--;
+                if (arrivalPhase < writePhase && pendingReadBatch > 0) pendingReadBatch--;
+                signalNext();
+                throw e;
+            }
+            waitingReaders--;
 
-        if (!running) throw new InterruptedException();
-        metrics.recordWaitTime(System.nanoTime() - startWait);
+            if (!running) throw new InterruptedException();
+            if (arrivalPhase < writePhase && pendingReadBatch > 0) pendingReadBatch--;
+            metrics.recordWaitTime(PerformanceMetrics.Role.READER, reader, System.nanoTime() - startWait);
 
-        readers++;
-        if (observer != null) {
-            observer.onReaderState(name, "READING");
-            observer.onResourceState("READING");
+            readers++;
+            if (watchdog != null) watchdog.acquired(reader, RESOURCE);
+            if (observer != null) {
+                observer.onReaderState(reader, ActorState.READING);
+                observer.onResourceState(ActorState.READING);
+            }
+            EventLog.log(EventLog.Event.READ_STARTED, reader, readers);
+        } finally {
+            lock.unlock();
         }
-        System.out.println(name + " started reading. Readers = " + readers);
     }
 
-    public synchronized void endRead(String name) {
-        readers--;
-        if (observer != null) {
-            observer.onReaderState(name, "IDLE");
-            if (readers == 0) observer.onResourceState("IDLE");
+    @Override
+    public void endRead(int reader) {
+        lock.lock();
+        try {
+            readers--;
+            if (watchdog != null) watchdog.released(reader, RESOURCE);
+            if (observer != null) {
+                observer.onReaderState(reader, ActorState.IDLE);
+                if (readers == 0) observer.onResourceState(ActorState.IDLE);
+            }
+            EventLog.log(EventLog.Event.READ_FINISHED, reader, readers);
+            metrics.addOperation(PerformanceMetrics.Role.READER, reader);
+            if (readers == 0) signalNext();
+        } finally {
+            lock.unlock();
         }
-        System.out.println(name + " finished reading. Readers = " + readers);
-        metrics.addOperation();
-        if (readers == 0) notifyAll();
     }
 
-    public synchronized void startWrite(String name) throws InterruptedException {
+    @Override
+    public void startWrite(int writer) throws InterruptedException {
         long startWait = System.nanoTime();
-        if (observer != null) observer.onWriterState(name, "WAITING");
+        if (observer != null) observer.onWriterState(writer, ActorState.WAITING);
+        int actor = writerActor(writer);
+        if (watchdog != null) watchdog.waiting(actor, RESOURCE);
+        try {
+            enterWrite(writer, actor, startWait);
+        } finally {
+            if (watchdog != null) watchdog.doneWaiting(actor);
+        }
+    }
 
-        while ((writerActive || readers > 0) && running) wait();
+    private void enterWrite(int writer, int actor, long startWait) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            waitingWriters++;
+            try {
+                boolean woken = false;
+                while (!policy.writerMayEnter(this) && running) {
+                    if (woken) metrics.increment(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS);
+                    await(writerWaiter, writerMayEnter);
+                    woken = true;
+                }
+            } catch (InterruptedException e) {
+                // Readers held back only by this writer may enter now
+                waitingWriters--;
+                signalNext();
+                throw e;
+            }
+            waitingWriters--;
 
-        if (!running) throw new InterruptedException();
-        metrics.recordWaitTime(System.nanoTime() - startWait);
+            if (!running) throw new InterruptedException();
+            metrics.recordWaitTime(PerformanceMetrics.Role.WRITER, writer, System.nanoTime() - startWait);
 
-        writerActive = true;
-        if (observer != null) {
-            observer.onWriterState(name, "WRITING");
-            observer.onResourceState("WRITING");
+            writerActive = true;
+            if (watchdog != null) watchdog.acquired(actor, RESOURCE);
+            if (observer != null) {
+                observer.onWriterState(writer, ActorState.WRITING);
+                observer.onResourceState(ActorState.WRITING);
+            }
+            EventLog.log(EventLog.Event.WRITE_STARTED, writer);
+        } finally {
+            lock.unlock();
         }
-        System.out.println(name + " started writing.");
     }
 
-    public synchronized void endWrite(String name) {
-        writerActive = false;
-        if (observer != null) {
-            observer.onWriterState(name, "IDLE");
-            observer.onResourceState("IDLE");
+    @Override
+    public void endWrite(int writer) {
+        lock.lock();
+        try {
+            writerActive = false;
+            if (watchdog != null) watchdog.released(writerActor(writer), RESOURCE);
+            writePhase++;
+            pendingReadBatch = waitingReaders;
+            if (observer != null) {
+                observer.onWriterState(writer, ActorState.IDLE);
+                observer.onResourceState(ActorState.IDLE);
+            }
+            EventLog.log(EventLog.Event.WRITE_FINISHED, writer);
+            metrics.addOperation(PerformanceMetrics.Role.WRITER, writer);
+            signalNext();
+        } finally {
+            lock.unlock();
         }
-        System.out.println(name + " finished writing.");
-        metrics.addOperation();
-        notifyAll();
     }
 
+    /*
+      Wakes the waiters the policy would admit now: all readers if at least
+      one of them may enter, otherwise one writer. A reader that arrived
+      before the last write (pending batch) is checked with an earlier
+      arrival phase, since phase-fair admits those ahead of waiting writers.
+      Must be called with the lock held.
+     */
+    private void signalNext() {
+        admissionChanges++; // only ever written under the lock
+        long oldestReaderPhase = pendingReadBatch > 0 ? writePhase - 1 : writePhase;
+        if (waitingReaders > 0 && policy.readerMayEnter(this, oldestReaderPhase)) {
+            readersMayEnter.signalAll();
+        } else if (waitingWriters > 0 && policy.writerMayEnter(this)) {
+            writerMayEnter.signal();
+        }
+    }
+
+    private int writerActor(int writer) {
+        return writer < 0 ? -1 : firstWriter + writer;
+    }
+
+    private void await(Waiter waiter, Condition condition) throws InterruptedException {
+        long seen = admissionChanges;
+        waiter.await(lock, condition, () -> admissionChanges != seen || !running);
+    }
+
+    // Policy inputs; only meaningful while holding the lock
+    boolean isWriterActive() { return writerActive; }
+    int getReaders() { return readers; }
+    int getWaitingWriters() { return waitingWriters; }
+    long getWritePhase() { return writePhase; }
+    int getPendingReadBatch() { return pendingReadBatch; }
+
+    @Override
     public int readData() { return data; }
+    @Override
     public void writeData(int value) { data = value; }
 
-    public synchronized void stop() {
-        running = false;
-        notifyAll();
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            readersMayEnter.signalAll();
+            writerMayEnter.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
+    @Override
     public boolean isRunning() {
         return running;
     }
 }
 
 class Reader implements Runnable {
-    private final ReadersWritersMonitor monitor;
-    private final String name;
-    private final VisualizationObserver observer;
-    
+    private final ReadWriteMonitor monitor;
+    private final int id;
+    private final boolean snapshotReads;
+    private final SimulationConfig config;
 
-    public Reader(ReadersWritersMonitor monitor, String name, VisualizationObserver observer) {
+    /** @param snapshotReads read the value in one short section and spend the "reading" time outside the monitor */
+    public Reader(ReadWriteMonitor monitor, int id, boolean snapshotReads, SimulationConfig config) {
         this.monitor = monitor;
-        this.name = name;
-        this.observer = observer;
+        this.id = id;
+        this.snapshotReads = snapshotReads;
+        this.config = config;
     }
 
     @Override
     public void run() {
         try {
             while (monitor.isRunning()) {
-                monitor.startRead(name);
-                System.out.println(name + " reads value: " + monitor.readData());
-                Thread.sleep(ThreadLocalRandom.current().nextInt(100) + 50); // Reduced sleep for better throughput demo
-                monitor.endRead(name);
-                Thread.sleep(ThreadLocalRandom.current().nextInt(200));
+                if (snapshotReads) {
+                    // Take a snapshot, then spend the reading time outside the monitor
+                    EventLog.log(EventLog.Event.READ_VALUE, id, monitor.read(id));
+                    config.eat();
+                } else {
+                    monitor.startRead(id);
+                    try {
+                        EventLog.log(EventLog.Event.READ_VALUE, id, monitor.readData());
+                        config.eat();
+                    } finally {
+                        monitor.endRead(id);
+                    }
+                }
+                config.think();
             }
         } catch (InterruptedException e) {
             // Thread.currentThread().interrupt(); // Don't interrupt, just exit
-            System.out.println(name + " stopped.");
+            EventLog.log(EventLog.Event.READER_STOPPED, id);
         }
     }
 }
 
 class Writer implements Runnable {
-    private final ReadersWritersMonitor monitor;
-    private final String name;
-    private final VisualizationObserver observer;
+    private final ReadWriteMonitor monitor;
+    private final int id;
+    private final SimulationConfig config;
 
-    public Writer(ReadersWritersMonitor monitor, String name, VisualizationObserver observer) {
+    public Writer(ReadWriteMonitor monitor, int id, SimulationConfig config) {
         this.monitor = monitor;
-        this.name = name;
-        this.observer = observer;
+        this.id = id;
+        this.config = config;
     }
 
     @Override
     public void run() {
         try {
             while (monitor.isRunning()) {
-                monitor.startWrite(name);
-                int value = ThreadLocalRandom.current().nextInt(100);
-                monitor.writeData(value);
-                System.out.println(name + " writes value: " + value);
-                Thread.sleep(ThreadLocalRandom.current().nextInt(100) + 50);
-                monitor.endWrite(name);
-                Thread.sleep(ThreadLocalRandom.current().nextInt(200));
+                monitor.startWrite(id);
+                try {
+                    int value = ThreadLocalRandom.current().nextInt(100);
+                    monitor.writeData(value);
+                    EventLog.log(EventLog.Event.WRITE_VALUE, id, value);
+                    config.eat();
+                } finally {
+                    monitor.endWrite(id);
+                }
+                config.think();
             }
         } catch (InterruptedException e) {
             // Thread.currentThread().interrupt();
-            System.out.println(name + " stopped.");
+            EventLog.log(EventLog.Event.WRITER_STOPPED, id);
         }
     }
 }
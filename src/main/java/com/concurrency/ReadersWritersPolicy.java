@@ -0,0 +1,56 @@
+package com.concurrency;
+
+/**
+ * Admission rules for the Readers-Writers monitor.
+ * The monitor asks its policy, while holding its lock, whether a waiting
+ * reader or writer may enter the critical section.
+ */
+public enum ReadersWritersPolicy {
+    /** Readers enter whenever no writer is active; writers can starve */
+    READER_PREFERENCE {
+        @Override
+        boolean readerMayEnter(ReadersWritersMonitor m, long arrivalPhase) {
+            return !m.isWriterActive();
+        }
+
+        @Override
+        boolean writerMayEnter(ReadersWritersMonitor m) {
+            return !m.isWriterActive() && m.getReaders() == 0;
+        }
+    },
+
+    /** A waiting writer blocks newly arriving readers; readers can starve */
+    WRITER_PREFERENCE {
+        @Override
+        boolean readerMayEnter(ReadersWritersMonitor m, long arrivalPhase) {
+            return !m.isWriterActive() && m.getWaitingWriters() == 0;
+        }
+
+        @Override
+        boolean writerMayEnter(ReadersWritersMonitor m) {
+            return !m.isWriterActive() && m.getReaders() == 0;
+        }
+    },
+
+    /*
+      Phase-fair: read and write phases alternate. A waiting writer blocks
+      readers that arrive after it, but every reader already waiting when a
+      write ends is admitted as one batch before the next writer may enter.
+     */
+    PHASE_FAIR {
+        @Override
+        boolean readerMayEnter(ReadersWritersMonitor m, long arrivalPhase) {
+            return !m.isWriterActive() && (m.getWaitingWriters() == 0 || arrivalPhase < m.getWritePhase());
+        }
+
+        @Override
+        boolean writerMayEnter(ReadersWritersMonitor m) {
+            return !m.isWriterActive() && m.getReaders() == 0 && m.getPendingReadBatch() == 0;
+        }
+    };
+
+    /** @param arrivalPhase the monitor's write phase when the reader started waiting */
+    abstract boolean readerMayEnter(ReadersWritersMonitor m, long arrivalPhase);
+
+    abstract boolean writerMayEnter(ReadersWritersMonitor m);
+}
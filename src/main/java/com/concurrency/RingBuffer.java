@@ -0,0 +1,241 @@
+package com.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+
+/*
+  Lock-free bounded buffer on a preallocated int array.
+
+  Every slot carries its own sequence number (Vyukov's bounded queue): a slot
+  is free for the producer claiming position p when its sequence equals p, and
+  holds data for the consumer claiming position p when it equals p + 1.
+  Producers and consumers claim positions by advancing the padded tail/head
+  sequences, so the two sides never touch the same counter.
+
+  The single-producer variant advances the tail with a plain ordered store;
+  the multi-producer variant has to CAS it. Consumers always CAS the head.
+ */
+class RingBuffer implements BoundedBuffer {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    private final int[] values;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final boolean multiProducer;
+    private final PaddedSequence head = new PaddedSequence(0);
+    private final PaddedSequence tail = new PaddedSequence(0);
+    private final PerformanceMetrics metrics;
+    private final SimulationObserver observer;
+    private volatile boolean running = true;
+
+    private RingBuffer(int capacity, boolean multiProducer, PerformanceMetrics metrics, SimulationObserver observer) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.multiProducer = multiProducer;
+        this.metrics = metrics;
+        this.observer = observer;
+        this.values = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Ring buffer that may only ever be produced into by one thread */
+    static RingBuffer singleProducer(int capacity, PerformanceMetrics metrics, SimulationObserver observer) {
+        return new RingBuffer(capacity, false, metrics, observer);
+    }
+
+    static RingBuffer multiProducer(int capacity, PerformanceMetrics metrics, SimulationObserver observer) {
+        return new RingBuffer(capacity, true, metrics, observer);
+    }
+
+    @Override
+    public void produce(int producer) throws InterruptedException {
+        if (observer != null) observer.onProducerState(producer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        int value = ThreadLocalRandom.current().nextInt(100);
+        try {
+            put(value);
+            metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, producer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onProducerState(producer, ActorState.PRODUCING);
+            int size = size();
+            EventLog.log(EventLog.Event.PRODUCED, producer, value, size);
+            if (observer != null) observer.onBufferUpdate(size, capacity);
+            metrics.addOperation(PerformanceMetrics.Role.PRODUCER, producer);
+        } finally {
+            if (observer != null) observer.onProducerState(producer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public void consume(int consumer) throws InterruptedException {
+        if (observer != null) observer.onConsumerState(consumer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        try {
+            int value = take();
+            metrics.recordWaitTime(PerformanceMetrics.Role.CONSUMER, consumer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onConsumerState(consumer, ActorState.CONSUMING);
+            int size = size();
+            EventLog.log(EventLog.Event.CONSUMED, consumer, value, size);
+            if (observer != null) observer.onBufferUpdate(size, capacity);
+            metrics.addOperation(PerformanceMetrics.Role.CONSUMER, consumer);
+        } finally {
+            if (observer != null) observer.onConsumerState(consumer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public int produceBatch(int producer, int[] src, int off, int len) throws InterruptedException {
+        BoundedBuffer.checkBatch(src.length, off, len);
+        if (observer != null) observer.onProducerState(producer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        try {
+            put(src[off]);
+            metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, producer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onProducerState(producer, ActorState.PRODUCING);
+            int count = 1;
+            while (count < len && offer(src[off + count])) {
+                count++;
+            }
+            int size = size();
+            EventLog.log(EventLog.Event.PRODUCED_BATCH, producer, count, size);
+            if (observer != null) observer.onBufferUpdate(size, capacity);
+            metrics.addOperations(PerformanceMetrics.Role.PRODUCER, producer, count);
+            return count;
+        } finally {
+            if (observer != null) observer.onProducerState(producer, ActorState.IDLE);
+        }
+    }
+
+    @Override
+    public int drainTo(int consumer, int[] dst, int max) throws InterruptedException {
+        BoundedBuffer.checkBatch(dst.length, 0, max);
+        if (observer != null) observer.onConsumerState(consumer, ActorState.WAITING);
+        long startWait = System.nanoTime();
+        try {
+            dst[0] = take();
+            metrics.recordWaitTime(PerformanceMetrics.Role.CONSUMER, consumer, System.nanoTime() - startWait);
+
+            if (observer != null) observer.onConsumerState(consumer, ActorState.CONSUMING);
+            int count = 1;
+            long value;
+            while (count < max && (value = poll()) != EMPTY) {
+                dst[count++] = (int) value;
+            }
+            int size = size();
+            EventLog.log(EventLog.Event.CONSUMED_BATCH, consumer, count, size);
+            if (observer != null) observer.onBufferUpdate(size, capacity);
+            metrics.addOperations(PerformanceMetrics.Role.CONSUMER, consumer, count);
+            return count;
+        } finally {
+            if (observer != null) observer.onConsumerState(consumer, ActorState.IDLE);
+        }
+    }
+
+    /** Blocks until the value is stored; throws once the buffer is stopped */
+    void put(int value) throws InterruptedException {
+        int tries = 0;
+        while (!offer(value)) {
+            tries = backOff(tries);
+        }
+    }
+
+    /** Blocks until a value is available; throws once the buffer is stopped */
+    int take() throws InterruptedException {
+        int tries = 0;
+        long value;
+        while ((value = poll()) == EMPTY) {
+            tries = backOff(tries);
+        }
+        return (int) value;
+    }
+
+    boolean offer(int value) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos % capacity);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (!multiProducer) {
+                    tail.setRelease(pos + 1);
+                    break;
+                }
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // slot still holds data from the previous lap: full
+            } else {
+                pos = tail.get(); // another producer claimed it first
+            }
+        }
+        int index = (int) (pos % capacity);
+        values[index] = value;
+        sequences.lazySet(index, pos + 1);
+        return true;
+    }
+
+    long poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos % capacity);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) break;
+                pos = head.get();
+            } else if (diff < 0) {
+                return EMPTY; // slot not published yet: empty
+            } else {
+                pos = head.get(); // another consumer claimed it first
+            }
+        }
+        int index = (int) (pos % capacity);
+        int value = values[index];
+        sequences.lazySet(index, pos + capacity);
+        return value;
+    }
+
+    /** Approximate number of stored elements; exact only when the buffer is quiescent */
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Spin briefly, then yield, then park in short slices so stop() is noticed promptly
+    private int backOff(int tries) throws InterruptedException {
+        if (!running || Thread.interrupted()) throw new InterruptedException();
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,83 @@
+package com.concurrency;
+
+/**
+ * Operations and wait times of the actors of one role (the producers, the
+ * readers, ...) within a MetricsSnapshot, per actor and in total.
+ * Actors are identified by their zero-based index, as in SimulationObserver.
+ */
+public final class RoleSnapshot {
+    private final long[] operations;
+    private final long[] waitTime; // in nanoseconds
+    private final long[] waitTimeCounts;
+    private final long maxWaitTime; // in nanoseconds
+
+    RoleSnapshot(long[] operations, long[] waitTime, long[] waitTimeCounts, long maxWaitTime) {
+        this.operations = operations;
+        this.waitTime = waitTime;
+        this.waitTimeCounts = waitTimeCounts;
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    /** What happened between an earlier snapshot of the same role and this one */
+    RoleSnapshot since(RoleSnapshot earlier) {
+        long[] ops = new long[operations.length];
+        long[] waits = new long[waitTime.length];
+        for (int a = 0; a < ops.length; a++) {
+            ops[a] = operations[a] - earlier.operations[a];
+            waits[a] = waitTime[a] - earlier.waitTime[a];
+        }
+        long[] counts = new long[waitTimeCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = waitTimeCounts[i] - earlier.waitTimeCounts[i];
+        }
+        return new RoleSnapshot(ops, waits, counts, LatencyHistogram.highestRecorded(counts, maxWaitTime));
+    }
+
+    public int getActors() {
+        return operations.length;
+    }
+
+    public long getOperations(int actor) {
+        return operations[actor];
+    }
+
+    public long getTotalOperations() {
+        long sum = 0;
+        for (long ops : operations) sum += ops;
+        return sum;
+    }
+
+    public long getMinOperations() {
+        long min = operations.length > 0 ? Long.MAX_VALUE : 0;
+        for (long ops : operations) min = Math.min(min, ops);
+        return min;
+    }
+
+    public long getMaxOperations() {
+        long max = 0;
+        for (long ops : operations) max = Math.max(max, ops);
+        return max;
+    }
+
+    /** Jain's fairness index of the per-actor operation counts */
+    public double getFairnessIndex() {
+        return PerformanceMetrics.fairnessIndex(operations);
+    }
+
+    /** Total time the actor spent waiting, in milliseconds */
+    public double getWaitTime(int actor) {
+        return waitTime[actor] / 1_000_000.0;
+    }
+
+    public double getAverageWaitTime() { // in milliseconds
+        long ops = getTotalOperations();
+        long total = 0;
+        for (long wait : waitTime) total += wait;
+        return ops > 0 ? (total / 1_000_000.0) / ops : 0;
+    }
+
+    /** Wait time at the given percentile (0-100] across the role's actors, in milliseconds */
+    public double getWaitTimePercentile(double percentile) {
+        return LatencyHistogram.valueAtPercentile(waitTimeCounts, percentile, maxWaitTime) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,215 @@
+package com.concurrency;
+
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.concurrency.gui.SimulationObserver;
+
+/**
+ * Non-interactive runner for scripted workloads and parameter sweeps.
+ * <pre>
+ *   java -cp target/classes com.concurrency.Main --sim readers-writers --readers 50 --writers 5 \
+ *        --think-ns 1000000 --eat-ns 200000 --duration 10000 --warmup 2000 --format csv
+ * </pre>
+ * Prints a single JSON object, or a CSV header and row, on stdout.
+ * Run with --help for the option list.
+ */
+public final class SimulationCli {
+    static final int OK = 0;
+    static final int USAGE_ERROR = 2;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: Main --sim <producer-consumer|dining-philosophers|readers-writers> [options]",
+            "  --duration <ms>          measured run time (default 5000)",
+            "  --warmup <ms>            unmeasured run time before it (default 0)",
+            "  --steady-state-window <ms>  after the warmup, keep warming up until throughput settles (default off)",
+            "  --steady-state-windows <n>  windows compared (default 5)   --steady-state-cv <x>  max variation (default 0.1)",
+            "  --steady-state-timeout <ms> give up waiting for steady state (default 30000)",
+            "  --think-ns <ns>          mean time spent outside the shared resource (default 100000000)",
+            "  --eat-ns <ns>            mean time spent inside it (default 100000000)",
+            "  --producers <n>          --consumers <n>   --capacity <n>   --batch-size <n> (default 1)",
+            "  --buffer <locking|locking-linked-list|ring-single-producer|ring-multi-producer>",
+            "  --readers <n>            --writers <n>",
+            "  --policy <reader-preference|writer-preference|phase-fair>",
+            "  --monitor <monitor|stamped>",
+            "  --philosophers <n>",
+            "  --strategy <resource-hierarchy|waiter|chandy-misra|try-acquire-backoff>",
+            "  --wait <blocking|spin|yield|adaptive>  how the locking buffer and monitor wait (default blocking)",
+            "  --watchdog <ms>          deadlock/starvation scan period, 0 to turn off (default 1000)",
+            "  --max-wait <ms>          waits longer than this count as starved (default 5000)",
+            "  --threads <platform|virtual>",
+            "  --format <text|json|csv> (default json)   --no-header  omit the CSV header",
+            "  --log <off|info|trace>   console event log (default off)",
+            "  --trace <file>           record every event to a binary trace (see: Main trace --help)",
+            "  --trace-capacity <n>     events kept per thread (default 4194304)");
+
+    private enum Format { TEXT, JSON, CSV }
+
+    private SimulationCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Parses the arguments, runs one simulation and prints its report; returns the exit code */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        SimulationConfig config;
+        Format format = Format.JSON;
+        boolean header = true;
+        EventLog.Level logLevel = EventLog.Level.OFF;
+        String trace = null;
+        int traceCapacity = TraceRecorder.DEFAULT_RECORDS_PER_REGION;
+        // Collected first so --sim may appear anywhere
+        Map<String, String> options = new LinkedHashMap<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--help") || arg.equals("-h")) {
+                    out.println(USAGE);
+                    return OK;
+                }
+                if (arg.equals("--no-header")) {
+                    header = false;
+                    continue;
+                }
+                if (!arg.startsWith("--")) throw new IllegalArgumentException("unexpected argument: " + arg);
+                String key = arg.substring(2);
+                String value;
+                int eq = key.indexOf('=');
+                if (eq >= 0) {
+                    value = key.substring(eq + 1);
+                    key = key.substring(0, eq);
+                } else {
+                    if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for --" + key);
+                    value = args[++i];
+                }
+                options.put(key, value);
+            }
+
+            String sim = options.remove("sim");
+            if (sim == null) throw new IllegalArgumentException("--sim is required");
+            SimulationConfig.Builder builder = SimulationConfig.builder(parseEnum(SimulationConfig.Simulation.class, sim));
+
+            for (Map.Entry<String, String> option : options.entrySet()) {
+                String value = option.getValue();
+                switch (option.getKey()) {
+                    case "duration": builder.durationMillis(parseLong(option.getKey(), value)); break;
+                    case "warmup": builder.warmupMillis(parseLong(option.getKey(), value)); break;
+                    case "steady-state-window": builder.steadyStateWindowMillis(parseLong(option.getKey(), value)); break;
+                    case "steady-state-windows": builder.steadyStateWindows(parseInt(option.getKey(), value)); break;
+                    case "steady-state-cv": builder.steadyStateVariation(parseDouble(option.getKey(), value)); break;
+                    case "steady-state-timeout": builder.steadyStateTimeoutMillis(parseLong(option.getKey(), value)); break;
+                    case "think-ns": builder.thinkNanos(parseLong(option.getKey(), value)); break;
+                    case "eat-ns": builder.eatNanos(parseLong(option.getKey(), value)); break;
+                    case "producers": builder.producers(parseInt(option.getKey(), value)); break;
+                    case "consumers": builder.consumers(parseInt(option.getKey(), value)); break;
+                    case "capacity": builder.capacity(parseInt(option.getKey(), value)); break;
+                    case "batch-size": builder.batchSize(parseInt(option.getKey(), value)); break;
+                    case "buffer": builder.bufferType(parseEnum(ProducerConsumer.BufferType.class, value)); break;
+                    case "readers": builder.readers(parseInt(option.getKey(), value)); break;
+                    case "writers": builder.writers(parseInt(option.getKey(), value)); break;
+                    case "policy": builder.policy(parseEnum(ReadersWritersPolicy.class, value)); break;
+                    case "monitor": builder.monitorType(parseEnum(ReadersWriters.MonitorType.class, value)); break;
+                    case "philosophers": builder.philosophers(parseInt(option.getKey(), value)); break;
+                    case "strategy": builder.diningStrategy(parseEnum(DiningStrategy.class, value)); break;
+                    case "wait": builder.waitStrategy(parseEnum(WaitStrategy.class, value)); break;
+                    case "watchdog": builder.watchdogPeriodMillis(parseLong(option.getKey(), value)); break;
+                    case "max-wait": builder.maxWaitMillis(parseLong(option.getKey(), value)); break;
+                    case "threads":
+                        builder.threadFactory(value.equalsIgnoreCase("virtual")
+                                ? SimulationThreads.virtual() : SimulationThreads.platform());
+                        break;
+                    case "format": format = parseEnum(Format.class, value); break;
+                    case "log": logLevel = parseEnum(EventLog.Level.class, value); break;
+                    case "trace": trace = value; break;
+                    case "trace-capacity": traceCapacity = parseInt(option.getKey(), value); break;
+                    default: throw new IllegalArgumentException("unknown option: --" + option.getKey());
+                }
+            }
+            config = builder.printMetrics(format == Format.TEXT).build();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return USAGE_ERROR;
+        }
+
+        TraceRecorder recorder = null;
+        if (trace != null) {
+            try {
+                recorder = TraceRecorder.create(Paths.get(trace), config, TraceRecorder.DEFAULT_REGIONS, traceCapacity);
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                err.println("Error: " + e.getMessage());
+                return USAGE_ERROR;
+            }
+        }
+
+        EventLog.Level previousLevel = EventLog.getLevel();
+        EventLog.setLevel(logLevel);
+        try {
+            MetricsSnapshot snapshot = runSimulation(config, recorder);
+            if (recorder != null) {
+                recorder.close();
+                if (recorder.getDroppedEvents() > 0) {
+                    err.println("Warning: the trace dropped " + recorder.getDroppedEvents() + " events, raise --trace-capacity");
+                }
+            }
+            if (format == Format.JSON) {
+                out.println(SimulationReport.toJson(config, snapshot));
+            } else if (format == Format.CSV) {
+                if (header) out.println(SimulationReport.csvHeader());
+                out.println(SimulationReport.toCsv(config, snapshot));
+            }
+        } finally {
+            if (recorder != null) recorder.close();
+            EventLog.setLevel(previousLevel);
+        }
+        return OK;
+    }
+
+    static MetricsSnapshot runSimulation(SimulationConfig config) {
+        return runSimulation(config, null);
+    }
+
+    static MetricsSnapshot runSimulation(SimulationConfig config, SimulationObserver observer) {
+        return SimulationRunner.run(config, observer, new PerformanceMetrics());
+    }
+
+    // Case-insensitive, with '-' accepted for '_' (e.g. phase-fair)
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        String name = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(name)) return constant;
+        }
+        throw new IllegalArgumentException("unknown " + type.getSimpleName() + ": " + value);
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + option + " expects a number, got " + value);
+        }
+    }
+
+    private static double parseDouble(String option, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + option + " expects a number, got " + value);
+        }
+    }
+
+    private static int parseInt(String option, String value) {
+        long parsed = parseLong(option, value);
+        if (parsed > Integer.MAX_VALUE || parsed < Integer.MIN_VALUE) {
+            throw new IllegalArgumentException("--" + option + " is out of range: " + value);
+        }
+        return (int) parsed;
+    }
+}
@@ -0,0 +1,226 @@
+package com.concurrency;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Workload of one simulation run: which problem, how many actors of each
+ * kind, how long they think and work, and how long the run lasts.
+ * <p>
+ * Think time is spent outside any shared resource (between productions,
+ * between reads or writes, and a philosopher's thinking); eat time is spent
+ * inside it (eating, reading, writing). Each pause is drawn uniformly from
+ * [mean / 2, mean * 3 / 2], so the 100 ms defaults give the classic 50-150 ms.
+ * Unset fields keep the values the simulations have always used.
+ * <p>
+ * Measurement starts after the fixed warmup and, if a steady-state window is
+ * set, once throughput over the last few windows varies by no more than the
+ * given coefficient of variation (or the steady-state timeout expires).
+ */
+public final class SimulationConfig {
+    public enum Simulation { PRODUCER_CONSUMER, DINING_PHILOSOPHERS, READERS_WRITERS }
+
+    private final Simulation simulation;
+    private final long durationMillis;
+    private final long warmupMillis;
+    private final long steadyStateWindowMillis;
+    private final int steadyStateWindows;
+    private final double steadyStateVariation;
+    private final long steadyStateTimeoutMillis;
+    private final long thinkNanos;
+    private final long eatNanos;
+    private final int producers;
+    private final int consumers;
+    private final int capacity;
+    private final int batchSize;
+    private final ProducerConsumer.BufferType bufferType;
+    private final int readers;
+    private final int writers;
+    private final ReadersWritersPolicy policy;
+    private final ReadersWriters.MonitorType monitorType;
+    private final int philosophers;
+    private final DiningStrategy diningStrategy;
+    private final WaitStrategy waitStrategy;
+    private final long watchdogPeriodMillis;
+    private final long maxWaitMillis;
+    private final ThreadFactory threadFactory;
+    private final boolean printMetrics;
+
+    private SimulationConfig(Builder b) {
+        this.simulation = b.simulation;
+        this.durationMillis = b.durationMillis;
+        this.warmupMillis = b.warmupMillis;
+        this.steadyStateWindowMillis = b.steadyStateWindowMillis;
+        this.steadyStateWindows = b.steadyStateWindows;
+        this.steadyStateVariation = b.steadyStateVariation;
+        this.steadyStateTimeoutMillis = b.steadyStateTimeoutMillis;
+        this.thinkNanos = b.thinkNanos;
+        this.eatNanos = b.eatNanos;
+        this.producers = b.producers;
+        this.consumers = b.consumers;
+        this.capacity = b.capacity;
+        this.batchSize = b.batchSize;
+        this.bufferType = b.bufferType;
+        this.readers = b.readers;
+        this.writers = b.writers;
+        this.policy = b.policy;
+        this.monitorType = b.monitorType;
+        this.philosophers = b.philosophers;
+        this.diningStrategy = b.diningStrategy;
+        this.waitStrategy = b.waitStrategy;
+        this.watchdogPeriodMillis = b.watchdogPeriodMillis;
+        this.maxWaitMillis = b.maxWaitMillis;
+        this.threadFactory = b.threadFactory != null ? b.threadFactory : SimulationThreads.defaultFactory();
+        this.printMetrics = b.printMetrics;
+    }
+
+    public static Builder builder(Simulation simulation) {
+        return new Builder(simulation);
+    }
+
+    public Simulation getSimulation() { return simulation; }
+    public long getDurationMillis() { return durationMillis; }
+    public long getWarmupMillis() { return warmupMillis; }
+    /** 0 disables steady-state detection */
+    public long getSteadyStateWindowMillis() { return steadyStateWindowMillis; }
+    public int getSteadyStateWindows() { return steadyStateWindows; }
+    public double getSteadyStateVariation() { return steadyStateVariation; }
+    public long getSteadyStateTimeoutMillis() { return steadyStateTimeoutMillis; }
+    public long getThinkNanos() { return thinkNanos; }
+    public long getEatNanos() { return eatNanos; }
+    public int getProducers() { return producers; }
+    public int getConsumers() { return consumers; }
+    public int getCapacity() { return capacity; }
+    /** Elements each producer or consumer moves per buffer operation; 1 uses produce/consume */
+    public int getBatchSize() { return batchSize; }
+    public ProducerConsumer.BufferType getBufferType() { return bufferType; }
+    public int getReaders() { return readers; }
+    public int getWriters() { return writers; }
+    public ReadersWritersPolicy getPolicy() { return policy; }
+    public ReadersWriters.MonitorType getMonitorType() { return monitorType; }
+    public int getPhilosophers() { return philosophers; }
+    public DiningStrategy getDiningStrategy() { return diningStrategy; }
+    /** How the locking buffer and the Readers-Writers monitor wait */
+    public WaitStrategy getWaitStrategy() { return waitStrategy; }
+    /** How often the deadlock and starvation watchdog scans; 0 turns it off */
+    public long getWatchdogPeriodMillis() { return watchdogPeriodMillis; }
+    /** Waits longer than this are reported as starved */
+    public long getMaxWaitMillis() { return maxWaitMillis; }
+    public ThreadFactory getThreadFactory() { return threadFactory; }
+    /** Whether the run prints its metrics table to stdout */
+    public boolean isPrintMetrics() { return printMetrics; }
+
+    void think() throws InterruptedException {
+        pause(thinkNanos);
+    }
+
+    void eat() throws InterruptedException {
+        pause(eatNanos);
+    }
+
+    private static void pause(long meanNanos) throws InterruptedException {
+        if (meanNanos <= 0) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            return;
+        }
+        TimeUnit.NANOSECONDS.sleep(meanNanos / 2 + ThreadLocalRandom.current().nextLong(meanNanos + 1));
+    }
+
+    public static final class Builder {
+        private final Simulation simulation;
+        private long durationMillis = 5000;
+        private long warmupMillis = 0;
+        private long steadyStateWindowMillis = 0;
+        private int steadyStateWindows = 5;
+        private double steadyStateVariation = 0.1;
+        private long steadyStateTimeoutMillis = 30_000;
+        private long thinkNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private long eatNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int producers = 2;
+        private int consumers = 3;
+        private int capacity = 5;
+        private int batchSize = 1;
+        private ProducerConsumer.BufferType bufferType = ProducerConsumer.BufferType.LOCKING;
+        private int readers = 3;
+        private int writers = 2;
+        private ReadersWritersPolicy policy = ReadersWritersPolicy.READER_PREFERENCE;
+        private ReadersWriters.MonitorType monitorType = ReadersWriters.MonitorType.MONITOR;
+        private int philosophers = 5;
+        private DiningStrategy diningStrategy = DiningStrategy.RESOURCE_HIERARCHY;
+        private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+        private long watchdogPeriodMillis = 1000;
+        private long maxWaitMillis = 5000;
+        private ThreadFactory threadFactory;
+        private boolean printMetrics = true;
+
+        private Builder(Simulation simulation) {
+            if (simulation == null) throw new IllegalArgumentException("simulation is required");
+            this.simulation = simulation;
+        }
+
+        public Builder durationMillis(long millis) { this.durationMillis = nonNegative("duration", millis); return this; }
+        public Builder warmupMillis(long millis) { this.warmupMillis = nonNegative("warmup", millis); return this; }
+        public Builder steadyStateWindowMillis(long millis) { this.steadyStateWindowMillis = nonNegative("steady-state window", millis); return this; }
+        public Builder steadyStateWindows(int windows) {
+            if (windows < 2) throw new IllegalArgumentException("steady-state windows must be at least 2: " + windows);
+            this.steadyStateWindows = windows;
+            return this;
+        }
+        public Builder steadyStateVariation(double variation) {
+            if (!(variation > 0)) throw new IllegalArgumentException("steady-state variation must be positive: " + variation);
+            this.steadyStateVariation = variation;
+            return this;
+        }
+        public Builder steadyStateTimeoutMillis(long millis) { this.steadyStateTimeoutMillis = nonNegative("steady-state timeout", millis); return this; }
+        public Builder thinkNanos(long nanos) { this.thinkNanos = nonNegative("think time", nanos); return this; }
+        public Builder eatNanos(long nanos) { this.eatNanos = nonNegative("eat time", nanos); return this; }
+        public Builder producers(int count) { this.producers = positive("producers", count); return this; }
+        public Builder consumers(int count) { this.consumers = positive("consumers", count); return this; }
+        public Builder capacity(int capacity) { this.capacity = positive("capacity", capacity); return this; }
+        public Builder batchSize(int size) { this.batchSize = positive("batch size", size); return this; }
+        public Builder bufferType(ProducerConsumer.BufferType type) { this.bufferType = type; return this; }
+        public Builder readers(int count) { this.readers = nonNegative("readers", count); return this; }
+        public Builder writers(int count) { this.writers = nonNegative("writers", count); return this; }
+        public Builder policy(ReadersWritersPolicy policy) { this.policy = policy; return this; }
+        public Builder monitorType(ReadersWriters.MonitorType type) { this.monitorType = type; return this; }
+        public Builder philosophers(int count) { this.philosophers = positive("philosophers", count); return this; }
+        public Builder diningStrategy(DiningStrategy strategy) { this.diningStrategy = strategy; return this; }
+        public Builder waitStrategy(WaitStrategy strategy) { this.waitStrategy = strategy; return this; }
+        public Builder watchdogPeriodMillis(long millis) { this.watchdogPeriodMillis = nonNegative("watchdog period", millis); return this; }
+        public Builder maxWaitMillis(long millis) { this.maxWaitMillis = positive("max wait", millis); return this; }
+        public Builder threadFactory(ThreadFactory factory) { this.threadFactory = factory; return this; }
+        public Builder printMetrics(boolean print) { this.printMetrics = print; return this; }
+
+        public SimulationConfig build() {
+            if (simulation == Simulation.PRODUCER_CONSUMER
+                    && bufferType == ProducerConsumer.BufferType.RING_SINGLE_PRODUCER && producers != 1) {
+                throw new IllegalArgumentException("RING_SINGLE_PRODUCER needs exactly one producer, got " + producers);
+            }
+            if (simulation == Simulation.DINING_PHILOSOPHERS && philosophers < 2) {
+                throw new IllegalArgumentException("need at least two philosophers: " + philosophers);
+            }
+            return new SimulationConfig(this);
+        }
+
+        private static long nonNegative(String what, long value) {
+            if (value < 0) throw new IllegalArgumentException(what + " must not be negative: " + value);
+            return value;
+        }
+
+        private static int nonNegative(String what, int value) {
+            if (value < 0) throw new IllegalArgumentException(what + " must not be negative: " + value);
+            return value;
+        }
+
+        private static long positive(String what, long value) {
+            if (value <= 0) throw new IllegalArgumentException(what + " must be positive: " + value);
+            return value;
+        }
+
+        private static int positive(String what, int value) {
+            if (value <= 0) throw new IllegalArgumentException(what + " must be positive: " + value);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.concurrency;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.concurrency.gui.SimulationObserver;
+
+/**
+ * A simulation running in the background, as returned by start().
+ * <p>
+ * The run lasts for its configured duration unless stop() ends it early.
+ * Stopping interrupts every actor at once and waits for all of them together,
+ * so shutdown takes about as long as the slowest actor needs to notice, not
+ * the sum over all actors. getShutdownNanos() reports how long that took.
+ * <pre>
+ *   SimulationHandle run = SimulationHandle.start(config, observer);
+ *   ...
+ *   run.stop();
+ *   run.awaitTermination(1, TimeUnit.SECONDS);
+ *   MetricsSnapshot result = run.getResult();
+ * </pre>
+ */
+public final class SimulationHandle {
+    /** Shutdown time of a run that has not finished */
+    public static final long NOT_STOPPED = -1;
+
+    private final PerformanceMetrics metrics;
+    private final Thread coordinator;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile long stopRequestedAt;
+    private volatile long stoppedAt;
+    private volatile boolean stopRequested;
+    private volatile MetricsSnapshot result;
+    private volatile RuntimeException failure;
+
+    private SimulationHandle(SimulationConfig config, SimulationObserver observer, PerformanceMetrics metrics) {
+        this.metrics = metrics;
+        this.coordinator = new Thread(() -> coordinate(config, observer), "Simulation-" + config.getSimulation());
+        coordinator.setDaemon(true);
+    }
+
+    public static SimulationHandle start(SimulationConfig config, SimulationObserver observer) {
+        return start(config, observer, new PerformanceMetrics());
+    }
+
+    /** Starts the run without waiting for it; the metrics can be sampled while it runs */
+    public static SimulationHandle start(SimulationConfig config, SimulationObserver observer, PerformanceMetrics metrics) {
+        SimulationHandle handle = new SimulationHandle(config, observer, metrics);
+        handle.coordinator.start();
+        return handle;
+    }
+
+    private void coordinate(SimulationConfig config, SimulationObserver observer) {
+        try {
+            result = SimulationRunner.run(config, observer, metrics);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            // The actors' end, not the report's: printing and the final snapshot are not shutdown
+            long actorsStoppedAt = metrics.getActorsStoppedAt();
+            stoppedAt = actorsStoppedAt != 0 ? actorsStoppedAt : System.nanoTime();
+            done.countDown();
+        }
+    }
+
+    /** Asks the run to finish now; returns at once, see awaitTermination() */
+    public void stop() {
+        if (stopRequested || isDone()) return;
+        stopRequestedAt = System.nanoTime();
+        stopRequested = true;
+        coordinator.interrupt();
+    }
+
+    /**
+     * Waits for every actor to finish; false if the timeout expired first.
+     * A timeout after stop() is logged, since the actors should have drained by then.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (done.await(timeout, unit)) return true;
+        if (stopRequested) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stopRequestedAt);
+            EventLog.log(EventLog.Event.STILL_STOPPING, -1, (int) Math.min(millis, Integer.MAX_VALUE));
+        }
+        return false;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** The run's final metrics, or null while it is still running */
+    public MetricsSnapshot getResult() {
+        if (failure != null) throw new IllegalStateException("simulation failed", failure);
+        return result;
+    }
+
+    /**
+     * Nanoseconds from stop() until the last actor had finished, or NOT_STOPPED
+     * while it runs. For a run that ended on its own, the actors' shutdown time,
+     * measured the same way from the runner's own stop.
+     */
+    public long getShutdownNanos() {
+        if (!isDone()) return NOT_STOPPED;
+        // A stop that raced with the run's own end does not count
+        if (stopRequested && stoppedAt - stopRequestedAt >= 0) return stoppedAt - stopRequestedAt;
+        MetricsSnapshot snapshot = result;
+        return snapshot != null ? snapshot.getShutdownNanos() : NOT_STOPPED;
+    }
+}
@@ -0,0 +1,110 @@
+package com.concurrency;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Machine-readable results of one run: the workload followed by its metrics,
+ * as one JSON object or one CSV row. Every simulation reports the same
+ * columns so rows from a parameter sweep can be concatenated.
+ */
+public final class SimulationReport {
+    private SimulationReport() {
+    }
+
+    public static String toJson(SimulationConfig config, MetricsSnapshot snapshot) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Object> field : fields(config, snapshot).entrySet()) {
+            if (json.length() > 1) json.append(", ");
+            json.append('"').append(field.getKey()).append("\": ");
+            Object value = field.getValue();
+            if (value instanceof String) {
+                json.append('"').append(value).append('"');
+            } else {
+                json.append(value);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    public static String csvHeader() {
+        SimulationConfig any = SimulationConfig.builder(SimulationConfig.Simulation.PRODUCER_CONSUMER).build();
+        return String.join(",", fields(any, new PerformanceMetrics().snapshot()).keySet());
+    }
+
+    public static String toCsv(SimulationConfig config, MetricsSnapshot snapshot) {
+        StringBuilder row = new StringBuilder();
+        for (Object value : fields(config, snapshot).values()) {
+            if (row.length() > 0) row.append(',');
+            row.append(value);
+        }
+        return row.toString();
+    }
+
+    /** The configuration columns of the report, in report order */
+    static Map<String, Object> workload(SimulationConfig config) {
+        Map<String, Object> f = new LinkedHashMap<>();
+        f.put("simulation", config.getSimulation().name());
+        f.put("duration_ms", config.getDurationMillis());
+        f.put("warmup_ms", config.getWarmupMillis());
+        f.put("think_ns", config.getThinkNanos());
+        f.put("eat_ns", config.getEatNanos());
+        f.put("producers", config.getProducers());
+        f.put("consumers", config.getConsumers());
+        f.put("capacity", config.getCapacity());
+        f.put("batch_size", config.getBatchSize());
+        f.put("buffer_type", config.getBufferType().name());
+        f.put("readers", config.getReaders());
+        f.put("writers", config.getWriters());
+        f.put("policy", config.getPolicy().name());
+        f.put("monitor", config.getMonitorType().name());
+        f.put("philosophers", config.getPhilosophers());
+        f.put("strategy", config.getDiningStrategy().name());
+        f.put("wait_strategy", config.getWaitStrategy().name());
+        f.put("watchdog_ms", config.getWatchdogPeriodMillis());
+        f.put("max_wait_ms", config.getMaxWaitMillis());
+
+        f.put("steady_window_ms", config.getSteadyStateWindowMillis());
+        return f;
+    }
+
+    // Values are Strings (enum names, quoted in JSON) or numbers
+    private static Map<String, Object> fields(SimulationConfig config, MetricsSnapshot snapshot) {
+        Map<String, Object> f = workload(config);
+
+        f.put("warmup_s", decimal(snapshot.getWarmupNanos() / 1_000_000_000.0));
+        f.put("steady_state", snapshot.isSteadyState());
+        f.put("operations", snapshot.getTotalOperations());
+        f.put("elapsed_s", decimal(snapshot.getDurationSeconds()));
+        f.put("throughput_ops_s", decimal(snapshot.getThroughput()));
+        f.put("wait_avg_ms", decimal(snapshot.getAverageWaitTime()));
+        f.put("wait_p50_ms", decimal(snapshot.getWaitTimePercentile(50)));
+        f.put("wait_p90_ms", decimal(snapshot.getWaitTimePercentile(90)));
+        f.put("wait_p99_ms", decimal(snapshot.getWaitTimePercentile(99)));
+        f.put("wait_p999_ms", decimal(snapshot.getWaitTimePercentile(99.9)));
+        f.put("wait_max_ms", decimal(snapshot.getMaxWaitTime()));
+        // -1 when thread CPU time is unavailable, e.g. for virtual threads
+        f.put("cpu_s", snapshot.getCpuTimeNanos() >= 0 ? decimal(snapshot.getCpuTimeNanos() / 1_000_000_000.0) : -1);
+        f.put("cpu_us_per_op", decimal(snapshot.getCpuTimePerOperation()));
+        f.put("shutdown_ms", snapshot.getShutdownNanos() >= 0 ? decimal(snapshot.getShutdownNanos() / 1_000_000.0) : -1);
+        for (PerformanceMetrics.Counter counter : PerformanceMetrics.Counter.values()) {
+            f.put(counter.name().toLowerCase(Locale.ROOT), snapshot.getCount(counter));
+        }
+        // -1 for roles the simulation does not have
+        for (PerformanceMetrics.Role role : PerformanceMetrics.Role.values()) {
+            String prefix = role.name().toLowerCase(Locale.ROOT) + "_";
+            RoleSnapshot r = snapshot.getRole(role);
+            f.put(prefix + "ops", r != null ? r.getTotalOperations() : -1);
+            f.put(prefix + "fairness", r != null ? decimal(r.getFairnessIndex()) : -1);
+            f.put(prefix + "wait_p99_ms", r != null ? decimal(r.getWaitTimePercentile(99)) : -1);
+        }
+        return f;
+    }
+
+    // Fixed six decimals, never scientific notation
+    private static BigDecimal decimal(double value) {
+        return new BigDecimal(String.format(Locale.ROOT, "%.6f", value));
+    }
+}
@@ -0,0 +1,109 @@
+package com.concurrency;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.concurrency.gui.SimulationObserver;
+
+/* Run lifecycle shared by the three simulations */
+final class SimulationRunner {
+    private SimulationRunner() {
+    }
+
+    /** Runs the configured simulation to the end, or until this thread is interrupted */
+    static MetricsSnapshot run(SimulationConfig config, SimulationObserver observer, PerformanceMetrics metrics) {
+        switch (config.getSimulation()) {
+            case PRODUCER_CONSUMER: return ProducerConsumer.run(config, observer, metrics);
+            case DINING_PHILOSOPHERS: return DiningPhilosophers.run(config, observer, metrics);
+            case READERS_WRITERS: return ReadersWriters.run(config, observer, metrics);
+            default: throw new IllegalStateException("unknown simulation " + config.getSimulation());
+        }
+    }
+
+    /**
+     * Lets the already started actors run through the warmup (fixed, then until
+     * steady if configured) and the measured duration, stops them, waits for
+     * every thread and reports the metrics. Interrupting the calling thread
+     * ends the warmup or the measured duration early.
+     *
+     * @param stop asks the actors to finish; the threads are also interrupted afterwards
+     */
+    static MetricsSnapshot measure(SimulationConfig config, PerformanceMetrics metrics, List<Thread> threads,
+                                   Runnable stop, String title) {
+        long cpuStart = MetricsSnapshot.NO_CPU_TIME;
+        long cpuEnd = MetricsSnapshot.NO_CPU_TIME;
+        try {
+            long warmupStart = System.nanoTime();
+            if (config.getWarmupMillis() > 0) Thread.sleep(config.getWarmupMillis());
+            boolean steady = config.getSteadyStateWindowMillis() > 0 && awaitSteadyState(config, metrics);
+            metrics.setWarmup(System.nanoTime() - warmupStart, steady);
+            // Before start(): the first call initializes the thread MXBean, which must not count as run time
+            cpuStart = cpuTime(threads);
+            metrics.start();
+            Thread.sleep(config.getDurationMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Taken before the stop: finished threads no longer report their CPU time
+        if (cpuStart != MetricsSnapshot.NO_CPU_TIME) cpuEnd = cpuTime(threads);
+
+        long shutdownStart = System.nanoTime();
+        stop.run();
+        // Interrupt everyone first so they drain in parallel, then wait. The
+        // caller's own interrupt (a stop request) must not cut the wait short.
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        boolean interrupted = Thread.interrupted();
+        for (Thread t : threads) {
+            while (true) {
+                try {
+                    t.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        metrics.setShutdown(shutdownStart, System.nanoTime());
+        if (interrupted) Thread.currentThread().interrupt();
+        metrics.stop();
+        metrics.setCpuTime(cpuEnd != MetricsSnapshot.NO_CPU_TIME ? cpuEnd - cpuStart : MetricsSnapshot.NO_CPU_TIME);
+        EventLog.flush();
+        if (config.isPrintMetrics()) metrics.printMetrics(title);
+        return metrics.snapshot();
+    }
+
+    /** Total CPU time of the threads, or NO_CPU_TIME if any of them cannot report it (e.g. virtual threads) */
+    static long cpuTime(List<Thread> threads) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadCpuTimeSupported() || !bean.isThreadCpuTimeEnabled()) return MetricsSnapshot.NO_CPU_TIME;
+        long total = 0;
+        for (Thread t : threads) {
+            long cpu = bean.getThreadCpuTime(t.getId());
+            if (cpu < 0) return MetricsSnapshot.NO_CPU_TIME;
+            total += cpu;
+        }
+        return total;
+    }
+
+    /** Samples throughput once per window until it settles; false if the timeout expires first */
+    static boolean awaitSteadyState(SimulationConfig config, PerformanceMetrics metrics) throws InterruptedException {
+        SteadyStateDetector detector = new SteadyStateDetector(config.getSteadyStateWindows(), config.getSteadyStateVariation());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getSteadyStateTimeoutMillis());
+        long lastOperations = metrics.getTotalOperations();
+        long lastTime = System.nanoTime();
+        while (true) {
+            Thread.sleep(config.getSteadyStateWindowMillis());
+            long operations = metrics.getTotalOperations();
+            long now = System.nanoTime();
+            double throughput = (operations - lastOperations) * 1_000_000_000.0 / (now - lastTime);
+            if (detector.addSample(throughput)) return true;
+            if (now - deadline >= 0) return false;
+            lastOperations = operations;
+            lastTime = now;
+        }
+    }
+}
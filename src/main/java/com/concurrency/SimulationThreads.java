@@ -0,0 +1,55 @@
+package com.concurrency;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the simulation actors.
+ * <p>
+ * Virtual threads are looked up reflectively so the project still compiles
+ * for Java 11; on JDK 21+ they let a simulation run far more actors than
+ * platform threads would. The default mode comes from the
+ * {@code simulation.threads} system property ("platform" or "virtual").
+ */
+public final class SimulationThreads {
+    public static final String MODE_PROPERTY = "simulation.threads";
+
+    private SimulationThreads() {
+    }
+
+    /** Factory selected by the simulation.threads property, platform threads if unset */
+    public static ThreadFactory defaultFactory() {
+        return "virtual".equalsIgnoreCase(System.getProperty(MODE_PROPERTY)) ? virtual() : platform();
+    }
+
+    public static ThreadFactory platform() {
+        return Thread::new;
+    }
+
+    /** @throws UnsupportedOperationException before JDK 21 */
+    public static ThreadFactory virtual() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads need JDK 21 or newer", e);
+        }
+    }
+
+    public static boolean virtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /** Creates, names and starts a thread from the factory */
+    static Thread start(ThreadFactory factory, Runnable task, String name) {
+        Thread t = factory.newThread(task);
+        t.setName(name);
+        t.start();
+        return t;
+    }
+}
@@ -0,0 +1,172 @@
+package com.concurrency;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+
+/*
+  Readers-Writers monitor built on StampedLock.
+
+  read() first takes an optimistic stamp, reads the value and validates the
+  stamp; only if a writer got in between does it fall back to a real read
+  lock. With few writes, readers never write to shared lock state at all.
+  startRead/endRead remain available as ordinary pessimistic read sections.
+  StampedLock has no fairness control, so no ReadersWritersPolicy applies.
+ */
+class StampedReadersWritersMonitor implements ReadWriteMonitor {
+    private final StampedLock lock = new StampedLock();
+    private final Lock readLock = lock.asReadLock();
+    private final Lock writeLock = lock.asWriteLock();
+    private int data = 0; // Shared resource, guarded by the stamped lock
+    private final PerformanceMetrics metrics;
+    private final SimulationObserver observer;
+    private final Watchdog watchdog;
+    private final int firstWriter; // watchdog actor of writer 0; readers come first
+    private volatile boolean running = true;
+
+    public StampedReadersWritersMonitor(PerformanceMetrics metrics) {
+        this(metrics, null);
+    }
+
+    public StampedReadersWritersMonitor(PerformanceMetrics metrics, SimulationObserver observer) {
+        this(metrics, observer, null, 0);
+    }
+
+    StampedReadersWritersMonitor(PerformanceMetrics metrics, SimulationObserver observer, Watchdog watchdog, int firstWriter) {
+        this.metrics = metrics;
+        this.observer = observer;
+        this.watchdog = watchdog;
+        this.firstWriter = firstWriter;
+    }
+
+    @Override
+    public int read(int reader) throws InterruptedException {
+        if (!running) throw new InterruptedException();
+        long startWait = System.nanoTime();
+
+        long stamp = lock.tryOptimisticRead();
+        int value = data;
+        if (stamp != 0 && lock.validate(stamp)) {
+            metrics.increment(PerformanceMetrics.Counter.OPTIMISTIC_READS);
+        } else {
+            if (watchdog != null) watchdog.waiting(reader, RESOURCE);
+            try {
+                stamp = lock.readLockInterruptibly();
+            } finally {
+                if (watchdog != null) watchdog.doneWaiting(reader);
+            }
+            try {
+                value = data;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            metrics.increment(PerformanceMetrics.Counter.PESSIMISTIC_READS);
+        }
+        metrics.recordWaitTime(PerformanceMetrics.Role.READER, reader, System.nanoTime() - startWait);
+        metrics.addOperation(PerformanceMetrics.Role.READER, reader);
+
+        if (observer != null) {
+            observer.onReaderState(reader, ActorState.READING);
+            observer.onReaderState(reader, ActorState.IDLE);
+        }
+        return value;
+    }
+
+    @Override
+    public void startRead(int reader) throws InterruptedException {
+        long startWait = System.nanoTime();
+        if (observer != null) observer.onReaderState(reader, ActorState.WAITING);
+        if (watchdog != null) watchdog.waiting(reader, RESOURCE);
+        try {
+            readLock.lockInterruptibly();
+        } finally {
+            if (watchdog != null) watchdog.doneWaiting(reader);
+        }
+        if (!running) {
+            readLock.unlock();
+            throw new InterruptedException();
+        }
+        if (watchdog != null) watchdog.acquired(reader, RESOURCE);
+        metrics.recordWaitTime(PerformanceMetrics.Role.READER, reader, System.nanoTime() - startWait);
+        metrics.increment(PerformanceMetrics.Counter.PESSIMISTIC_READS);
+
+        if (observer != null) {
+            observer.onReaderState(reader, ActorState.READING);
+            observer.onResourceState(ActorState.READING);
+        }
+        EventLog.log(EventLog.Event.READ_STARTED, reader, lock.getReadLockCount());
+    }
+
+    @Override
+    public void endRead(int reader) {
+        if (watchdog != null) watchdog.released(reader, RESOURCE);
+        readLock.unlock();
+        if (observer != null) {
+            observer.onReaderState(reader, ActorState.IDLE);
+            if (!lock.isReadLocked()) observer.onResourceState(ActorState.IDLE);
+        }
+        EventLog.log(EventLog.Event.READ_FINISHED, reader, lock.getReadLockCount());
+        metrics.addOperation(PerformanceMetrics.Role.READER, reader);
+    }
+
+    @Override
+    public void startWrite(int writer) throws InterruptedException {
+        long startWait = System.nanoTime();
+        if (observer != null) observer.onWriterState(writer, ActorState.WAITING);
+        int actor = writerActor(writer);
+        if (watchdog != null) watchdog.waiting(actor, RESOURCE);
+        try {
+            writeLock.lockInterruptibly();
+        } finally {
+            if (watchdog != null) watchdog.doneWaiting(actor);
+        }
+        if (!running) {
+            writeLock.unlock();
+            throw new InterruptedException();
+        }
+        if (watchdog != null) watchdog.acquired(actor, RESOURCE);
+        metrics.recordWaitTime(PerformanceMetrics.Role.WRITER, writer, System.nanoTime() - startWait);
+
+        if (observer != null) {
+            observer.onWriterState(writer, ActorState.WRITING);
+            observer.onResourceState(ActorState.WRITING);
+        }
+        EventLog.log(EventLog.Event.WRITE_STARTED, writer);
+    }
+
+    @Override
+    public void endWrite(int writer) {
+        if (watchdog != null) watchdog.released(writerActor(writer), RESOURCE);
+        writeLock.unlock();
+        if (observer != null) {
+            observer.onWriterState(writer, ActorState.IDLE);
+            observer.onResourceState(ActorState.IDLE);
+        }
+        EventLog.log(EventLog.Event.WRITE_FINISHED, writer);
+        metrics.addOperation(PerformanceMetrics.Role.WRITER, writer);
+    }
+
+    private int writerActor(int writer) {
+        return writer < 0 ? -1 : firstWriter + writer;
+    }
+
+    /** Only call between startRead/endRead or startWrite/endWrite */
+    @Override
+    public int readData() { return data; }
+
+    /** Only call between startWrite/endWrite */
+    @Override
+    public void writeData(int value) { data = value; }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,48 @@
+package com.concurrency;
+
+/*
+  Decides when a warming-up simulation has settled.
+
+  The caller feeds one throughput sample per fixed window. The run counts as
+  steady once the last `windows` samples have a coefficient of variation
+  (standard deviation / mean) at or below the threshold, i.e. throughput
+  has stopped climbing and is only jittering around its mean.
+ */
+class SteadyStateDetector {
+    private final double[] samples;
+    private final double maxVariation;
+    private int count;
+
+    SteadyStateDetector(int windows, double maxVariation) {
+        if (windows < 2) throw new IllegalArgumentException("need at least two windows: " + windows);
+        this.samples = new double[windows];
+        this.maxVariation = maxVariation;
+    }
+
+    /** Adds the throughput of the latest window; returns true once steady */
+    boolean addSample(double throughput) {
+        samples[count % samples.length] = throughput;
+        count++;
+        return isSteady();
+    }
+
+    boolean isSteady() {
+        return count >= samples.length && variation() <= maxVariation;
+    }
+
+    /** Coefficient of variation of the retained samples; infinite while the mean is zero */
+    double variation() {
+        int n = Math.min(count, samples.length);
+        if (n == 0) return Double.POSITIVE_INFINITY;
+        double mean = 0;
+        for (int i = 0; i < n; i++) mean += samples[i];
+        mean /= n;
+        if (mean <= 0) return Double.POSITIVE_INFINITY;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            double d = samples[i] - mean;
+            variance += d * d;
+        }
+        return Math.sqrt(variance / n) / mean;
+    }
+}
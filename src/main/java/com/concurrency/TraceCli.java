@@ -0,0 +1,172 @@
+package com.concurrency;
+
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+import com.concurrency.gui.ActorState;
+
+/**
+ * Decodes traces written with --trace.
+ * <pre>
+ *   java -cp target/classes com.concurrency.Main trace summary run.trace
+ *   java -cp target/classes com.concurrency.Main trace dump run.trace --limit 100
+ * </pre>
+ */
+public final class TraceCli {
+    private static final String USAGE = String.join("\n",
+            "Usage: Main trace <summary|dump> <file> [options]",
+            "  summary                  event counts per type and state, per-actor fairness",
+            "  dump [--limit <n>]       one line per event in time order (default: all)");
+
+    private static final ActorState[] STATES = ActorState.values();
+
+    private TraceCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            out.println(USAGE);
+            return SimulationCli.OK;
+        }
+        TraceReader reader;
+        long limit = Long.MAX_VALUE;
+        try {
+            if (args.length < 2) throw new IllegalArgumentException("a command and a trace file are required");
+            if (!args[0].equals("summary") && !args[0].equals("dump")) {
+                throw new IllegalArgumentException("unknown command: " + args[0]);
+            }
+            for (int i = 2; i < args.length; i++) {
+                if (args[0].equals("dump") && args[i].equals("--limit") && i + 1 < args.length) {
+                    limit = Long.parseLong(args[++i]);
+                } else {
+                    throw new IllegalArgumentException("unexpected argument: " + args[i]);
+                }
+            }
+            reader = TraceReader.open(Paths.get(args[1]));
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return SimulationCli.USAGE_ERROR;
+        }
+
+        if (args[0].equals("summary")) {
+            summarize(reader, Paths.get(args[1]), out);
+        } else {
+            dump(reader, limit, out);
+        }
+        return SimulationCli.OK;
+    }
+
+    static void dump(TraceReader reader, long limit, PrintStream out) {
+        TraceReader.Cursor cursor = reader.cursor();
+        for (long n = 0; n < limit && cursor.next(); n++) {
+            TraceRecorder.Type type = cursor.getType();
+            String value;
+            if (type == TraceRecorder.Type.BUFFER) {
+                value = cursor.getValue() + "/" + cursor.getActor();
+            } else if (type == TraceRecorder.Type.FORK) {
+                value = cursor.getValue() != 0 ? "taken" : "free";
+            } else {
+                value = STATES[cursor.getValue()].name();
+            }
+            out.printf("%d %d %s %d %s%n", cursor.getTimestamp(), cursor.getThread(), type,
+                    type == TraceRecorder.Type.BUFFER ? 0 : cursor.getActor() + 1, value);
+        }
+    }
+
+    /* Per type: event count, entries into each state, and how evenly the actors got to work */
+    static void summarize(TraceReader reader, Path file, PrintStream out) {
+        TraceRecorder.Type[] types = TraceRecorder.Type.values();
+        long[] events = new long[types.length];
+        long[][] stateCounts = new long[types.length][STATES.length];
+        long[][] work = new long[types.length][];
+        long first = -1;
+        long last = 0;
+        int maxBuffer = 0;
+
+        TraceReader.Cursor cursor = reader.cursor();
+        while (cursor.next()) {
+            if (first < 0) first = cursor.getTimestamp();
+            last = cursor.getTimestamp();
+            TraceRecorder.Type type = cursor.getType();
+            int t = type.ordinal();
+            events[t]++;
+            if (type == TraceRecorder.Type.BUFFER) {
+                maxBuffer = Math.max(maxBuffer, cursor.getValue());
+                continue;
+            }
+            if (type == TraceRecorder.Type.FORK) continue;
+            ActorState state = STATES[cursor.getValue()];
+            stateCounts[t][state.ordinal()]++;
+            int actor = cursor.getActor();
+            if (state == workState(type) && actor >= 0) {
+                if (work[t] == null) work[t] = new long[Math.max(16, actor + 1)];
+                if (actor >= work[t].length) work[t] = Arrays.copyOf(work[t], Math.max(actor + 1, work[t].length * 2));
+                work[t][actor]++;
+            }
+        }
+
+        out.println("Trace: " + file);
+        StringBuilder workload = new StringBuilder();
+        for (Map.Entry<String, String> field : reader.getWorkload().entrySet()) {
+            if (workload.length() > 0) workload.append(", ");
+            workload.append(field.getKey()).append('=').append(field.getValue());
+        }
+        out.println("Workload: " + workload);
+        double seconds = first >= 0 ? (last - first) / 1_000_000_000.0 : 0;
+        out.printf("Events: %d from %d threads over %.3f s (%.0f events/s), dropped: %d%n", reader.getEventCount(),
+                reader.getThreads(), seconds, seconds > 0 ? reader.getEventCount() / seconds : 0, reader.getDroppedEvents());
+
+        for (TraceRecorder.Type type : types) {
+            int t = type.ordinal();
+            if (events[t] == 0) continue;
+            StringBuilder line = new StringBuilder(String.format("%-12s %d events", type, events[t]));
+            if (type == TraceRecorder.Type.BUFFER) {
+                line.append(", max size ").append(maxBuffer);
+            } else {
+                for (ActorState state : STATES) {
+                    long count = stateCounts[t][state.ordinal()];
+                    if (count > 0) line.append(", ").append(state).append(' ').append(count);
+                }
+            }
+            out.println(line);
+            if (work[t] != null) {
+                int actors = reader.getWorkloadInt(actorsKey(type), work[t].length);
+                long[] perActor = Arrays.copyOf(work[t], Math.max(actors, 1));
+                long min = Long.MAX_VALUE;
+                long max = 0;
+                for (long count : perActor) {
+                    min = Math.min(min, count);
+                    max = Math.max(max, count);
+                }
+                out.printf("             %s per actor min/max: %d / %d, Jain's fairness index: %.3f%n",
+                        workState(type), min, max, PerformanceMetrics.fairnessIndex(perActor));
+            }
+        }
+    }
+
+    private static ActorState workState(TraceRecorder.Type type) {
+        switch (type) {
+            case PRODUCER: return ActorState.PRODUCING;
+            case CONSUMER: return ActorState.CONSUMING;
+            case PHILOSOPHER: return ActorState.EATING;
+            case READER: return ActorState.READING;
+            case WRITER: return ActorState.WRITING;
+            default: return null;
+        }
+    }
+
+    // Workload key holding the number of actors of the type
+    private static String actorsKey(TraceRecorder.Type type) {
+        return type.name().toLowerCase(Locale.ROOT) + "s";
+    }
+}
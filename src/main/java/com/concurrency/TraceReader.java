@@ -0,0 +1,238 @@
+package com.concurrency;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+
+/**
+ * Reads a trace written by TraceRecorder. The file is mapped read-only and
+ * the per-thread regions are merged into one time-ordered stream by a cursor,
+ * so even traces of millions of events are read without loading them.
+ */
+public final class TraceReader {
+    private final Map<String, String> workload;
+    private final long startEpochMillis;
+    private final long droppedEvents;
+    private final MappedByteBuffer[] regions;
+    private final int[] counts;
+
+    private TraceReader(Map<String, String> workload, long startEpochMillis, long droppedEvents,
+                        MappedByteBuffer[] regions, int[] counts) {
+        this.workload = workload;
+        this.startEpochMillis = startEpochMillis;
+        this.droppedEvents = droppedEvents;
+        this.regions = regions;
+        this.counts = counts;
+    }
+
+    public static TraceReader open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < TraceRecorder.HEADER_PAGE) throw new IllegalArgumentException(file + " is not a trace");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TraceRecorder.HEADER_PAGE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != TraceRecorder.MAGIC) throw new IllegalArgumentException(file + " is not a trace");
+            if (header.getInt(4) != TraceRecorder.VERSION || header.getInt(8) != TraceRecorder.RECORD_SIZE) {
+                throw new IllegalArgumentException(file + " has unsupported trace version " + header.getInt(4));
+            }
+            int regionCount = header.getInt(12);
+            long regionSize = (long) header.getInt(16) * TraceRecorder.RECORD_SIZE;
+            int used = header.getInt(20);
+            long start = header.getLong(24);
+            long dropped = header.getLong(32);
+            byte[] metadata = new byte[header.getInt(40)];
+            header.get(TraceRecorder.METADATA_OFFSET, metadata);
+
+            Map<String, String> workload = new LinkedHashMap<>();
+            for (String line : new String(metadata, StandardCharsets.UTF_8).split("\n")) {
+                int eq = line.indexOf('=');
+                if (eq > 0) workload.put(line.substring(0, eq), line.substring(eq + 1));
+            }
+
+            long regionsOffset = TraceRecorder.headerSize(regionCount);
+            MappedByteBuffer counts = channel.map(FileChannel.MapMode.READ_ONLY, 0, regionsOffset);
+            counts.order(ByteOrder.LITTLE_ENDIAN);
+            MappedByteBuffer[] regions = new MappedByteBuffer[used];
+            int[] sizes = new int[used];
+            for (int r = 0; r < used; r++) {
+                sizes[r] = (int) counts.getLong(TraceRecorder.HEADER_PAGE + r * 8);
+                if (sizes[r] == 0) continue;
+                regions[r] = channel.map(FileChannel.MapMode.READ_ONLY, regionsOffset + r * regionSize,
+                        (long) sizes[r] * TraceRecorder.RECORD_SIZE);
+                regions[r].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new TraceReader(Collections.unmodifiableMap(workload), start, dropped, regions, sizes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read trace " + file, e);
+        }
+    }
+
+    /** The recorded run's configuration, as in the report's workload columns */
+    public Map<String, String> getWorkload() {
+        return workload;
+    }
+
+    /** Integer workload value, or the default if the trace does not have it */
+    public int getWorkloadInt(String key, int defaultValue) {
+        String value = workload.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /** Events lost at recording time because a thread's region was full */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /** Threads that recorded events */
+    public int getThreads() {
+        return regions.length;
+    }
+
+    public long getEventCount() {
+        long total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    /** Timestamp of the first event, or 0 for an empty trace */
+    public long getStartNanos() {
+        long start = Long.MAX_VALUE;
+        for (int r = 0; r < regions.length; r++) {
+            if (counts[r] > 0) start = Math.min(start, regions[r].getLong(0));
+        }
+        return start == Long.MAX_VALUE ? 0 : start;
+    }
+
+    /** Timestamp of the last event, or 0 for an empty trace */
+    public long getEndNanos() {
+        long end = 0;
+        for (int r = 0; r < regions.length; r++) {
+            if (counts[r] > 0) end = Math.max(end, regions[r].getLong((counts[r] - 1) * TraceRecorder.RECORD_SIZE));
+        }
+        return end;
+    }
+
+    /** A new cursor before the first event */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Delivers every event to the observer in time order, as fast as possible */
+    public void replay(SimulationObserver observer) {
+        Cursor cursor = cursor();
+        while (cursor.next()) cursor.deliver(observer);
+    }
+
+    /**
+     * Time-ordered walk over every thread's events: a binary heap of the
+     * regions keyed by their next timestamp. Ties keep region order.
+     */
+    public final class Cursor {
+        private final int[] position = new int[regions.length];
+        private final int[] heap = new int[regions.length];
+        private int size;
+        private int current = -1;
+        private int offset;
+
+        private Cursor() {
+            for (int r = 0; r < regions.length; r++) {
+                if (counts[r] > 0) heap[size++] = r;
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) siftDown(i);
+        }
+
+        /** Moves to the next event; false at the end of the trace */
+        public boolean next() {
+            if (current >= 0) {
+                if (++position[current] < counts[current]) {
+                    siftDown(0);
+                } else {
+                    heap[0] = heap[--size];
+                    siftDown(0);
+                }
+            }
+            if (size == 0) {
+                current = -1;
+                return false;
+            }
+            current = heap[0];
+            offset = position[current] * TraceRecorder.RECORD_SIZE;
+            return true;
+        }
+
+        /** Nanoseconds since the recorder was created */
+        public long getTimestamp() {
+            return regions[current].getLong(offset);
+        }
+
+        public int getThread() {
+            return regions[current].getInt(offset + 8);
+        }
+
+        public TraceRecorder.Type getType() {
+            return TraceRecorder.Type.fromCode(regions[current].getInt(offset + 12));
+        }
+
+        public int getActor() {
+            return regions[current].getInt(offset + 16);
+        }
+
+        public int getValue() {
+            return regions[current].getInt(offset + 20);
+        }
+
+        /** Replays the current event as the observer call that recorded it */
+        public void deliver(SimulationObserver observer) {
+            int actor = getActor();
+            int value = getValue();
+            switch (getType()) {
+                case BUFFER: observer.onBufferUpdate(value, actor); break;
+                case PRODUCER: observer.onProducerState(actor, ActorState.fromCode(value)); break;
+                case CONSUMER: observer.onConsumerState(actor, ActorState.fromCode(value)); break;
+                case PHILOSOPHER: observer.onPhilosopherState(actor, ActorState.fromCode(value)); break;
+                case FORK: observer.onForkUpdate(actor, value != 0); break;
+                case READER: observer.onReaderState(actor, ActorState.fromCode(value)); break;
+                case WRITER: observer.onWriterState(actor, ActorState.fromCode(value)); break;
+                case RESOURCE: observer.onResourceState(ActorState.fromCode(value)); break;
+                default: throw new IllegalStateException("unknown event type " + getType());
+            }
+        }
+
+        private long timestamp(int region) {
+            return regions[region].getLong(position[region] * TraceRecorder.RECORD_SIZE);
+        }
+
+        private boolean before(int a, int b) {
+            long ta = timestamp(a);
+            long tb = timestamp(b);
+            return ta < tb || (ta == tb && a < b);
+        }
+
+        private void siftDown(int i) {
+            int region = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+                if (!before(heap[child], region)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = region;
+        }
+    }
+}
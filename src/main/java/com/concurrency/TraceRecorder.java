@@ -0,0 +1,258 @@
+package com.concurrency;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+
+/**
+ * Records every observer event of a run into a memory-mapped binary trace for
+ * offline analysis (TraceReader, TraceCli) and replay.
+ * <p>
+ * Each recording thread claims its own region of the file on its first event
+ * and appends fixed-size records to it with absolute puts, so threads never
+ * share a write position, a lock or a cache line. Appending costs a clock read
+ * and five stores into the page cache; nothing is flushed until close(). A
+ * thread whose region is full, or that finds no region left, drops its events
+ * and counts them.
+ * <p>
+ * Layout, little-endian: a {@value #HEADER_PAGE}-byte header (magic, version,
+ * record size, region count and capacity, start time, dropped count, the run's
+ * workload as key=value lines), the record count of every region, then the
+ * regions. A record is the nanoseconds since the recorder was created, the
+ * recording thread's index, the event type, the actor and the value.
+ * Close the recorder only after the actors have stopped.
+ */
+public final class TraceRecorder implements SimulationObserver, AutoCloseable {
+    /** Event types; only append new constants, traces store the ordinal */
+    public enum Type {
+        BUFFER,      // actor = capacity, value = current size
+        PRODUCER,    // value = ActorState ordinal, here and below
+        CONSUMER,
+        PHILOSOPHER,
+        FORK,        // value = 1 when taken
+        READER,
+        WRITER,
+        RESOURCE;    // actor = 0
+
+        private static final Type[] VALUES = values();
+
+        public static Type fromCode(int code) {
+            return VALUES[code];
+        }
+    }
+
+    static final int MAGIC = 0x43545243; // "CTRC"
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 24;
+    static final int HEADER_PAGE = 4096;
+    static final int METADATA_OFFSET = 48;
+
+    static final int DEFAULT_REGIONS = 1024;
+    static final int DEFAULT_RECORDS_PER_REGION = 1 << 22;
+
+    private final FileChannel channel;
+    private final int regionCount;
+    private final int recordsPerRegion;
+    private final long regionsOffset;
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final List<Region> regions = new ArrayList<>(); // guarded by itself
+    private final ThreadLocal<Region> region = new ThreadLocal<>();
+    private volatile boolean closed;
+
+    /* One thread's slice of the file; only that thread appends */
+    private static final class Region {
+        final int index;
+        final MappedByteBuffer buffer; // null when no region was left
+        final int capacity;
+        int count;
+        long dropped;
+
+        Region(int index, MappedByteBuffer buffer, int capacity) {
+            this.index = index;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+
+    private TraceRecorder(FileChannel channel, int regionCount, int recordsPerRegion) {
+        this.channel = channel;
+        this.regionCount = regionCount;
+        this.recordsPerRegion = recordsPerRegion;
+        this.regionsOffset = headerSize(regionCount);
+    }
+
+    /** Trace of the given run with room for 1024 threads of 2^22 events each; the file stays sparse */
+    public static TraceRecorder create(Path file, SimulationConfig config) {
+        return create(file, config, DEFAULT_REGIONS, DEFAULT_RECORDS_PER_REGION);
+    }
+
+    public static TraceRecorder create(Path file, SimulationConfig config, int threads, int recordsPerThread) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive: " + threads);
+        if (recordsPerThread <= 0 || recordsPerThread > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("records per thread must be between 1 and "
+                    + Integer.MAX_VALUE / RECORD_SIZE + ": " + recordsPerThread);
+        }
+        StringBuilder metadata = new StringBuilder();
+        for (Map.Entry<String, Object> field : SimulationReport.workload(config).entrySet()) {
+            metadata.append(field.getKey()).append('=').append(field.getValue()).append('\n');
+        }
+        byte[] bytes = metadata.toString().getBytes(StandardCharsets.UTF_8);
+        if (METADATA_OFFSET + bytes.length > HEADER_PAGE) throw new IllegalArgumentException("workload too long for the trace header");
+
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            TraceRecorder recorder = new TraceRecorder(channel, threads, recordsPerThread);
+            MappedByteBuffer header = recorder.mapHeader();
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, RECORD_SIZE);
+            header.putInt(12, threads);
+            header.putInt(16, recordsPerThread);
+            header.putLong(24, System.currentTimeMillis());
+            header.putInt(40, bytes.length);
+            header.put(METADATA_OFFSET, bytes);
+            return recorder;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create trace " + file, e);
+        }
+    }
+
+    static long headerSize(int regionCount) {
+        long size = HEADER_PAGE + regionCount * 8L;
+        return (size + HEADER_PAGE - 1) / HEADER_PAGE * HEADER_PAGE;
+    }
+
+    private MappedByteBuffer mapHeader() throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionsOffset);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        return header;
+    }
+
+    private void append(Type type, int actor, int value) {
+        Region r = region.get();
+        if (r == null) r = claim();
+        if (r.count == r.capacity) {
+            r.dropped++;
+            return;
+        }
+        int offset = r.count * RECORD_SIZE;
+        MappedByteBuffer buffer = r.buffer;
+        buffer.putLong(offset, System.nanoTime() - startNanos);
+        buffer.putInt(offset + 8, r.index);
+        buffer.putInt(offset + 12, type.ordinal());
+        buffer.putInt(offset + 16, actor);
+        buffer.putInt(offset + 20, value);
+        r.count++;
+    }
+
+    // First event of this thread: map its region
+    private Region claim() {
+        int index = claimed.getAndIncrement();
+        Region r;
+        if (index >= regionCount || closed) {
+            r = new Region(index, null, 0);
+        } else {
+            long size = (long) recordsPerRegion * RECORD_SIZE;
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, regionsOffset + index * size, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                r = new Region(index, buffer, recordsPerRegion);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot map trace region " + index, e);
+            }
+        }
+        synchronized (regions) {
+            regions.add(r);
+        }
+        region.set(r);
+        return r;
+    }
+
+    /** Events that did not fit, so far */
+    public long getDroppedEvents() {
+        long dropped = 0;
+        synchronized (regions) {
+            for (Region r : regions) dropped += r.dropped;
+        }
+        return dropped;
+    }
+
+    /** Writes the record counts and flushes the trace; events recorded afterwards are lost */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            MappedByteBuffer header = mapHeader();
+            long dropped = 0;
+            synchronized (regions) {
+                for (Region r : regions) {
+                    dropped += r.dropped;
+                    if (r.buffer == null) continue;
+                    header.putLong(HEADER_PAGE + r.index * 8, r.count);
+                    r.buffer.force();
+                }
+                header.putInt(20, Math.min(regions.size(), regionCount));
+            }
+            header.putLong(32, dropped);
+            header.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot finish trace", e);
+        }
+    }
+
+    @Override
+    public void onBufferUpdate(int currentSize, int capacity) {
+        append(Type.BUFFER, capacity, currentSize);
+    }
+
+    @Override
+    public void onProducerState(int producer, ActorState state) {
+        append(Type.PRODUCER, producer, state.ordinal());
+    }
+
+    @Override
+    public void onConsumerState(int consumer, ActorState state) {
+        append(Type.CONSUMER, consumer, state.ordinal());
+    }
+
+    @Override
+    public void onPhilosopherState(int philosopher, ActorState state) {
+        append(Type.PHILOSOPHER, philosopher, state.ordinal());
+    }
+
+    @Override
+    public void onForkUpdate(int fork, boolean taken) {
+        append(Type.FORK, fork, taken ? 1 : 0);
+    }
+
+    @Override
+    public void onReaderState(int reader, ActorState state) {
+        append(Type.READER, reader, state.ordinal());
+    }
+
+    @Override
+    public void onWriterState(int writer, ActorState state) {
+        append(Type.WRITER, writer, state.ordinal());
+    }
+
+    @Override
+    public void onResourceState(ActorState state) {
+        append(Type.RESOURCE, 0, state.ordinal());
+    }
+}
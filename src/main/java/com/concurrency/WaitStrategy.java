@@ -0,0 +1,173 @@
+package com.concurrency;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a thread waits for a monitor condition (buffer not full or not empty,
+ * reader or writer admitted).
+ * <p>
+ * Blocking parks on the condition at once and costs no CPU while waiting, but
+ * every handoff pays a park/unpark. The spinning strategies release the lock
+ * and poll a lock-free hint instead, trading a busy core for sub-microsecond
+ * handoffs; they only make sense with a core per waiting thread. Adaptive
+ * spins for as long as spinning has recently paid off, then yields, then parks.
+ * Compare strategies with the CPU time and the spin/park counters in the metrics.
+ */
+public enum WaitStrategy {
+    /** Park on the condition immediately */
+    BLOCKING {
+        @Override
+        Waiter newWaiter(PerformanceMetrics metrics) {
+            return new BlockingWaiter(metrics);
+        }
+    },
+
+    /** Busy-spin with Thread.onSpinWait() and never park */
+    SPIN {
+        @Override
+        Waiter newWaiter(PerformanceMetrics metrics) {
+            return new PollingWaiter(metrics, false);
+        }
+    },
+
+    /** Thread.yield() in a loop and never park */
+    YIELD {
+        @Override
+        Waiter newWaiter(PerformanceMetrics metrics) {
+            return new PollingWaiter(metrics, true);
+        }
+    },
+
+    /** Spin with an adaptive limit, then yield briefly, then park */
+    ADAPTIVE {
+        @Override
+        Waiter newWaiter(PerformanceMetrics metrics) {
+            return new AdaptiveWaiter(metrics);
+        }
+    };
+
+    /** One waiter per wait site: the adaptive strategy learns per condition */
+    abstract Waiter newWaiter(PerformanceMetrics metrics);
+}
+
+/*
+  Waits once for a condition of a monitor. Called with the lock held after
+  the caller saw its predicate false; returns with the lock held, and the
+  caller re-checks the predicate in its loop as with Condition.await().
+
+  `ready` is a lock-free hint that the predicate may have become true. It must
+  only read volatile state that is written under the lock and must turn true
+  when the monitor is stopped, or a spinning waiter would never notice stop().
+ */
+abstract class Waiter {
+    protected final PerformanceMetrics metrics;
+
+    Waiter(PerformanceMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    abstract void await(Lock lock, Condition condition, BooleanSupplier ready) throws InterruptedException;
+
+    protected void parked(Condition condition) throws InterruptedException {
+        metrics.increment(PerformanceMetrics.Counter.PARKED_WAITS);
+        condition.await();
+    }
+}
+
+class BlockingWaiter extends Waiter {
+    BlockingWaiter(PerformanceMetrics metrics) {
+        super(metrics);
+    }
+
+    @Override
+    void await(Lock lock, Condition condition, BooleanSupplier ready) throws InterruptedException {
+        parked(condition);
+    }
+}
+
+/* Polls `ready` outside the lock until it turns true; signals are never needed */
+class PollingWaiter extends Waiter {
+    private static final int INTERRUPT_CHECK_MASK = 0x3ff;
+
+    private final boolean yield;
+
+    PollingWaiter(PerformanceMetrics metrics, boolean yield) {
+        super(metrics);
+        this.yield = yield;
+    }
+
+    @Override
+    void await(Lock lock, Condition condition, BooleanSupplier ready) throws InterruptedException {
+        metrics.increment(PerformanceMetrics.Counter.SPIN_WAITS);
+        lock.unlock();
+        try {
+            for (int i = 0; !ready.getAsBoolean(); i++) {
+                if ((i & INTERRUPT_CHECK_MASK) == 0 && Thread.interrupted()) throw new InterruptedException();
+                if (yield) {
+                    Thread.yield();
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        } finally {
+            lock.lock();
+        }
+    }
+}
+
+/*
+  Spin-then-yield-then-park. The spin limit doubles whenever a spin phase
+  ends with the condition met and halves whenever the waiter has to park, so
+  short handoffs settle on spinning and long waits quickly stop burning CPU.
+  The limit is a heuristic shared by every thread waiting here; races on it
+  are harmless.
+ */
+class AdaptiveWaiter extends Waiter {
+    private static final int MIN_SPINS = 16;
+    private static final int MAX_SPINS = 1 << 14;
+    private static final int YIELDS = 8;
+
+    private int spinLimit = 1 << 10;
+
+    AdaptiveWaiter(PerformanceMetrics metrics) {
+        super(metrics);
+    }
+
+    @Override
+    void await(Lock lock, Condition condition, BooleanSupplier ready) throws InterruptedException {
+        int limit = spinLimit;
+        boolean met = false;
+        lock.unlock();
+        try {
+            for (int i = 0; i < limit + YIELDS; i++) {
+                if (ready.getAsBoolean()) {
+                    met = true;
+                    break;
+                }
+                if (i < limit) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        } finally {
+            lock.lock();
+        }
+        if (Thread.interrupted()) throw new InterruptedException();
+
+        if (met) {
+            spinLimit = Math.min(MAX_SPINS, limit * 2);
+            metrics.increment(PerformanceMetrics.Counter.SPIN_WAITS);
+            return;
+        }
+        spinLimit = Math.max(MIN_SPINS, limit / 2);
+        // The lock was released while spinning, so a signal may have been missed: re-check first
+        if (!ready.getAsBoolean()) parked(condition);
+    }
+
+    int getSpinLimit() {
+        return spinLimit;
+    }
+}
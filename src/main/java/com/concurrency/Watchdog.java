@@ -0,0 +1,245 @@
+package com.concurrency;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+import com.concurrency.gui.SimulationObserver;
+
+/*
+  Deadlock and starvation detector running alongside a simulation.
+
+  Actors report what they wait for and what they hold (forks, the shared
+  resource of Readers-Writers) with a couple of ordered stores into
+  preallocated arrays; nothing is locked on their side. A daemon thread scans
+  the arrays once per period:
+  - any actor that has been trying to acquire for longer than the wait bound
+    is flagged once per wait (STARVED_WAITS);
+  - the wait-for graph (waiting actor -> holders of the resource it waits for)
+    is searched for cycles. A cycle is only reported when every actor in it
+    has been waiting for at least a full period, so a racy scan of a moving
+    graph does not raise false alarms (DEADLOCKS, once per cycle).
+
+  A wait starts with the first waiting() call and lasts until doneWaiting(),
+  across the several resources an actor may acquire in between.
+ */
+final class Watchdog implements AutoCloseable {
+    /** Resource for waits that are tracked for starvation but not part of the wait-for graph */
+    static final int UNTRACKED = -1;
+    private static final int NONE = -2;
+    private static final int MAX_HELD = 2;
+
+    private final int actors;
+    private final IntFunction<String> names;
+    private final IntFunction<String> resourceNames;
+    private final PerformanceMetrics metrics;
+    private final SimulationObserver observer;
+    private final long periodNanos;
+    private final long maxWaitNanos;
+
+    private final AtomicLongArray waitStart;    // 0 while not waiting
+    private final AtomicIntegerArray waitingFor; // resource, UNTRACKED or NONE
+    private final AtomicIntegerArray held;       // MAX_HELD slots per actor, NONE when empty
+
+    // Scan state, only touched by the watchdog thread
+    private final long[] starvedEpisode;
+    private final long[] deadlockEpisode;
+    private final int[] holderHead;
+    private final int[] holderNext;
+    private final int[] color;
+    private final int[] stack;
+    private final int[] edge;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    Watchdog(int actors, IntFunction<String> names, int resources, IntFunction<String> resourceNames,
+             PerformanceMetrics metrics, SimulationObserver observer, long periodMillis, long maxWaitMillis) {
+        if (periodMillis <= 0) throw new IllegalArgumentException("period must be positive: " + periodMillis);
+        this.actors = actors;
+        this.names = names;
+        this.resourceNames = resourceNames;
+        this.metrics = metrics;
+        this.observer = observer;
+        this.periodNanos = periodMillis * 1_000_000;
+        this.maxWaitNanos = maxWaitMillis * 1_000_000;
+        this.waitStart = new AtomicLongArray(actors);
+        this.waitingFor = new AtomicIntegerArray(actors);
+        this.held = new AtomicIntegerArray(actors * MAX_HELD);
+        for (int i = 0; i < actors; i++) waitingFor.set(i, NONE);
+        for (int i = 0; i < held.length(); i++) held.set(i, NONE);
+        this.starvedEpisode = new long[actors];
+        this.deadlockEpisode = new long[actors];
+        this.holderHead = new int[resources];
+        this.holderNext = new int[actors * MAX_HELD];
+        this.color = new int[actors];
+        this.stack = new int[actors];
+        this.edge = new int[actors];
+        this.thread = new Thread(this::scanLoop, "Watchdog");
+        thread.setDaemon(true);
+    }
+
+    /** Watchdog for the configured run, already started, or null if the config turns it off */
+    static Watchdog start(SimulationConfig config, int actors, IntFunction<String> names, int resources,
+                          IntFunction<String> resourceNames, PerformanceMetrics metrics, SimulationObserver observer) {
+        if (config.getWatchdogPeriodMillis() == 0) return null;
+        Watchdog watchdog = new Watchdog(actors, names, resources, resourceNames, metrics, observer,
+                config.getWatchdogPeriodMillis(), config.getMaxWaitMillis());
+        watchdog.thread.start();
+        return watchdog;
+    }
+
+    /** The actor is blocked on the resource; starts its wait unless one is in progress */
+    void waiting(int actor, int resource) {
+        if (actor < 0) return;
+        if (waitStart.get(actor) == 0) waitStart.lazySet(actor, System.nanoTime());
+        waitingFor.lazySet(actor, resource);
+    }
+
+    /** The actor got the resource; its wait goes on until doneWaiting() */
+    void acquired(int actor, int resource) {
+        if (actor < 0) return;
+        waitingFor.lazySet(actor, NONE);
+        if (resource < 0) return;
+        int base = actor * MAX_HELD;
+        for (int k = 0; k < MAX_HELD; k++) {
+            if (held.get(base + k) == NONE) {
+                held.lazySet(base + k, resource);
+                return;
+            }
+        }
+    }
+
+    void released(int actor, int resource) {
+        if (actor < 0 || resource < 0) return;
+        int base = actor * MAX_HELD;
+        for (int k = 0; k < MAX_HELD; k++) {
+            if (held.get(base + k) == resource) {
+                held.lazySet(base + k, NONE);
+                return;
+            }
+        }
+    }
+
+    /** Ends the actor's wait, whether it got everything or gave up */
+    void doneWaiting(int actor) {
+        if (actor < 0) return;
+        waitingFor.lazySet(actor, NONE);
+        waitStart.lazySet(actor, 0);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scanLoop() {
+        while (running) {
+            try {
+                Thread.sleep(periodNanos / 1_000_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            scan(System.nanoTime());
+        }
+    }
+
+    void scan(long now) {
+        for (int a = 0; a < actors; a++) {
+            long start = waitStart.get(a);
+            if (start != 0 && now - start > maxWaitNanos && starvedEpisode[a] != start) {
+                starvedEpisode[a] = start;
+                metrics.increment(PerformanceMetrics.Counter.STARVED_WAITS);
+                report(names.apply(a) + " has waited " + (now - start) / 1_000_000 + " ms" + describeWait(a));
+            }
+        }
+        findCycles(now);
+    }
+
+    /*
+      Iterative depth-first search over waiting actors. An actor is grey while
+      on the stack; reaching a grey actor again closes a cycle made of the
+      stack entries from that actor up.
+     */
+    private void findCycles(long now) {
+        Arrays.fill(holderHead, NONE);
+        for (int slot = 0; slot < holderNext.length; slot++) {
+            int resource = held.get(slot);
+            if (resource < 0 || resource >= holderHead.length) continue;
+            holderNext[slot] = holderHead[resource];
+            holderHead[resource] = slot;
+        }
+        Arrays.fill(color, 0);
+
+        for (int root = 0; root < actors; root++) {
+            if (color[root] != 0 || waitingFor.get(root) < 0) continue;
+            int depth = 0;
+            stack[depth] = root;
+            edge[depth] = firstHolder(root);
+            color[root] = 1;
+            while (depth >= 0) {
+                int slot = edge[depth];
+                if (slot == NONE) {
+                    color[stack[depth--]] = 2;
+                    continue;
+                }
+                edge[depth] = holderNext[slot];
+                int next = slot / MAX_HELD;
+                if (next == stack[depth]) continue; // holds what it waits for: a shared resource it re-enters
+                if (color[next] == 1) {
+                    onCycle(next, depth, now);
+                } else if (color[next] == 0 && waitingFor.get(next) >= 0) {
+                    color[next] = 1;
+                    stack[++depth] = next;
+                    edge[depth] = firstHolder(next);
+                }
+            }
+        }
+    }
+
+    private int firstHolder(int actor) {
+        int resource = waitingFor.get(actor);
+        return resource >= 0 && resource < holderHead.length ? holderHead[resource] : NONE;
+    }
+
+    private void onCycle(int first, int depth, long now) {
+        int from = depth;
+        while (stack[from] != first) from--;
+        boolean settled = true;
+        boolean reported = true;
+        for (int i = from; i <= depth; i++) {
+            long start = waitStart.get(stack[i]);
+            if (start == 0 || now - start < periodNanos) settled = false;
+            if (deadlockEpisode[stack[i]] != start) reported = false;
+        }
+        if (!settled || reported) return;
+
+        StringBuilder cycle = new StringBuilder("Deadlock: ");
+        for (int i = from; i <= depth; i++) {
+            deadlockEpisode[stack[i]] = waitStart.get(stack[i]);
+            cycle.append(names.apply(stack[i])).append(describeWait(stack[i])).append(" -> ");
+        }
+        cycle.append(names.apply(first));
+        metrics.increment(PerformanceMetrics.Counter.DEADLOCKS);
+        report(cycle.toString());
+    }
+
+    private String describeWait(int actor) {
+        int resource = waitingFor.get(actor);
+        return resource >= 0 ? " (waiting for " + resourceNames.apply(resource) + ")" : "";
+    }
+
+    // Off the actors' threads, so printing here cannot stall the simulation
+    private void report(String finding) {
+        metrics.addFinding(finding);
+        if (EventLog.isEnabled(EventLog.Level.INFO)) System.err.println("Watchdog: " + finding);
+        if (observer != null) observer.onWatchdogAlert(finding);
+    }
+}
@@ -0,0 +1,71 @@
+package com.concurrency.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws a whole role as one Canvas with a block of pixels per actor, either as
+ * a heat-map grid or as a ring, for runs with more actors than the views can
+ * afford a node each for. Changing an actor's color repaints only its cell, so
+ * a frame costs the same whatever the number of actors.
+ */
+final class ActorCanvas extends Canvas {
+    /** Views draw a role with more actors than this on an ActorCanvas */
+    static final int NODE_LIMIT = 64;
+
+    private static final double MAX_CELL = 16;
+
+    private final double[] x;
+    private final double[] y;
+    private final double cell;
+    private final double gap;
+
+    private ActorCanvas(double width, double height, double[] x, double[] y, double cell, Color initial) {
+        super(width, height);
+        this.x = x;
+        this.y = y;
+        this.cell = cell;
+        this.gap = cell >= 4 ? 1 : 0;
+        for (int i = 0; i < x.length; i++) fill(i, initial);
+    }
+
+    /** Row-major grid of square cells filling about width x height; below 1 px cells it grows taller */
+    static ActorCanvas grid(int count, double width, double height, Color initial) {
+        double cell = Math.max(1, Math.min(MAX_CELL, Math.floor(Math.sqrt(width * height / count))));
+        int columns = (int) Math.min(count, Math.max(1, Math.floor(width / cell)));
+        int rows = (count + columns - 1) / columns;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = (i % columns) * cell;
+            y[i] = (i / columns) * cell;
+        }
+        return new ActorCanvas(columns * cell, rows * cell, x, y, cell, initial);
+    }
+
+    /** Cells around a circle of the given radius, the first at the top, turned by phase cells */
+    static ActorCanvas ring(int count, double radius, double phase, Color initial) {
+        double step = 2 * Math.PI / count;
+        double cell = Math.max(1, Math.min(MAX_CELL, Math.floor(radius * step)));
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            double angle = (i + phase) * step - Math.PI / 2;
+            x[i] = radius + radius * Math.cos(angle);
+            y[i] = radius + radius * Math.sin(angle);
+        }
+        return new ActorCanvas(2 * radius + cell, 2 * radius + cell, x, y, cell, initial);
+    }
+
+    int getActorCount() {
+        return x.length;
+    }
+
+    void fill(int actor, Color color) {
+        if (actor < 0 || actor >= x.length) return;
+        GraphicsContext g = getGraphicsContext2D();
+        g.setFill(color);
+        g.fillRect(x[actor], y[actor], cell - gap, cell - gap);
+    }
+}
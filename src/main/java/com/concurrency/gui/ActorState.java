@@ -0,0 +1,24 @@
+package com.concurrency.gui;
+
+/**
+ * States reported through SimulationObserver.
+ * Views index their color tables by ordinal, so only append new constants.
+ */
+public enum ActorState {
+    IDLE,
+    WAITING,
+    PRODUCING,
+    CONSUMING,
+    THINKING,
+    HUNGRY,
+    EATING,
+    READING,
+    WRITING;
+
+    private static final ActorState[] VALUES = values();
+
+    /** Reverse of ordinal() without the array copy values() makes on every call */
+    public static ActorState fromCode(int code) {
+        return VALUES[code];
+    }
+}
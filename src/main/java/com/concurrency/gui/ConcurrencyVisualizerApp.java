@@ -4,13 +4,21 @@ import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
+import javafx.scene.control.Slider;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.ToolBar;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
+
 public class ConcurrencyVisualizerApp extends Application {
 
     private MainController controller;
@@ -23,8 +31,9 @@ public class ConcurrencyVisualizerApp extends Application {
         MetricsPanel metricsPanel = new MetricsPanel();
         root.setRight(metricsPanel);
 
-        // Observer
+        // Observer, drawing once per pulse
         GuiObserver observer = new GuiObserver();
+        observer.start();
 
         // Controller
         controller = new MainController(root, observer, metricsPanel);
@@ -40,7 +49,7 @@ public class ConcurrencyVisualizerApp extends Application {
         Button btnRW = new Button("Readers-Writers");
         btnRW.setOnAction(e -> controller.showReadersWriters());
 
-        navBar.getItems().addAll(btnPC, btnDP, btnRW);
+        navBar.getItems().addAll(btnPC, btnDP, btnRW, new Separator(), createReplayControls(primaryStage));
         root.setTop(navBar);
 
         // Bottom Control Panel
@@ -50,13 +59,30 @@ public class ConcurrencyVisualizerApp extends Application {
 
         Button btnStart = new Button("Start");
         btnStart.setStyle("-fx-base: green; -fx-text-fill: white; -fx-font-weight: bold;");
-        btnStart.setOnAction(e -> controller.startSimulation());
+        btnStart.setOnAction(e -> {
+            try {
+                controller.startSimulation();
+            } catch (IllegalArgumentException ex) {
+                new Alert(Alert.AlertType.ERROR, "Cannot start: " + ex.getMessage()).showAndWait();
+            }
+        });
 
         Button btnStop = new Button("Stop");
         btnStop.setStyle("-fx-base: red; -fx-text-fill: white; -fx-font-weight: bold;");
         btnStop.setOnAction(e -> controller.stopSimulation());
 
-        controls.getChildren().addAll(btnStart, btnStop);
+        // Actors per role (0 = the simulation's defaults); past 64 a role is drawn on a canvas
+        Spinner<Integer> actors = new Spinner<>(0, 100_000, 0, 1);
+        actors.setEditable(true);
+        actors.setPrefWidth(100);
+        actors.valueProperty().addListener((obs, old, value) -> controller.setActorsPerRole(value));
+        Spinner<Integer> capacity = new Spinner<>(0, 1_000_000, 0, 1);
+        capacity.setEditable(true);
+        capacity.setPrefWidth(100);
+        capacity.valueProperty().addListener((obs, old, value) -> controller.setCapacity(value));
+
+        controls.getChildren().addAll(btnStart, btnStop, new Label("Actors per role (0 = default)"), actors,
+                new Label("Capacity (0 = default)"), capacity);
         root.setBottom(controls);
 
         Scene scene = new Scene(root, 1024, 768);
@@ -65,6 +91,50 @@ public class ConcurrencyVisualizerApp extends Application {
         primaryStage.show();
     }
 
+    // Open a trace recorded with --trace, then play, pause, seek and change speed
+    private HBox createReplayControls(Stage stage) {
+        Slider position = new Slider(0, 1, 0);
+        position.setPrefWidth(200);
+        position.setDisable(true);
+        Label time = new Label("--");
+
+        Button btnOpen = new Button("Open Trace...");
+        btnOpen.setOnAction(e -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Open Trace");
+            File file = chooser.showOpenDialog(stage);
+            if (file == null) return;
+            try {
+                controller.openTrace(file.toPath(), nanos -> {
+                    if (!position.isValueChanging()) position.setValue(nanos);
+                    time.setText(String.format("%.3f s", nanos / 1_000_000_000.0));
+                });
+            } catch (RuntimeException ex) {
+                new Alert(Alert.AlertType.ERROR, "Cannot replay " + file + ": " + ex.getMessage()).showAndWait();
+                return;
+            }
+            position.setMax(Math.max(1, controller.getTraceDuration()));
+            position.setDisable(false);
+        });
+
+        Button btnPlay = new Button("Play/Pause");
+        btnPlay.setOnAction(e -> controller.toggleTracePlayback());
+
+        ComboBox<Double> speed = new ComboBox<>();
+        speed.getItems().addAll(0.001, 0.01, 0.1, 0.5, 1.0, 2.0, 10.0);
+        speed.setValue(1.0);
+        speed.setOnAction(e -> controller.setTraceSpeed(speed.getValue()));
+
+        position.valueChangingProperty().addListener((obs, was, changing) -> {
+            if (!changing) controller.seekTrace((long) position.getValue());
+        });
+        position.setOnMouseClicked(e -> controller.seekTrace((long) position.getValue()));
+
+        HBox replay = new HBox(5, btnOpen, btnPlay, new Label("Speed"), speed, position, time);
+        replay.setAlignment(Pos.CENTER_LEFT);
+        return replay;
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
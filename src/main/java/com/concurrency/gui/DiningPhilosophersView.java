@@ -1,16 +1,25 @@
 package com.concurrency.gui;
 
+import com.concurrency.SimulationConfig;
+
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Line;
 import javafx.scene.paint.Color;
 import javafx.scene.control.Label;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class DiningPhilosophersView extends Pane {
     private final List<Circle> philosophers = new ArrayList<>();
     private final List<Line> forks = new ArrayList<>();
+    // Used instead of the nodes above past ActorCanvas.NODE_LIMIT
+    private ActorCanvas philosopherCanvas;
+    private ActorCanvas forkCanvas;
+    private int philosopherCount;
+
+    private static final int LABELLED_ACTORS = 12; // beyond this, seats without names
 
     // Colors
     private static final Color COLOR_THINKING = Color.BLUE;
@@ -19,12 +28,28 @@ public class DiningPhilosophersView extends Pane {
     private static final Color COLOR_FORK_FREE = Color.BLACK;
     private static final Color COLOR_FORK_TAKEN = Color.RED;
 
+    // Indexed by ActorState ordinal
+    private static final Color[] STATE_COLORS = new Color[ActorState.values().length];
+    static {
+        Arrays.fill(STATE_COLORS, COLOR_THINKING);
+        STATE_COLORS[ActorState.EATING.ordinal()] = COLOR_EATING;
+        STATE_COLORS[ActorState.HUNGRY.ordinal()] = COLOR_HUNGRY;
+    }
+
     public DiningPhilosophersView() {
         setStyle("-fx-background-color: #e0e0e0;");
-        setupLayout();
+        configure(SimulationConfig.builder(SimulationConfig.Simulation.DINING_PHILOSOPHERS).build());
     }
 
-    private void setupLayout() {
+    /** Rebuilds the table for the run's philosophers; call on the FX thread */
+    public void configure(SimulationConfig config) {
+        getChildren().clear();
+        philosophers.clear();
+        forks.clear();
+        philosopherCanvas = null;
+        forkCanvas = null;
+        philosopherCount = config.getPhilosophers();
+
         double centerX = 400;
         double centerY = 300;
         double tableRadius = 100;
@@ -36,21 +61,37 @@ public class DiningPhilosophersView extends Pane {
         table.setStroke(Color.BROWN);
         getChildren().add(table);
 
-        int num = 5;
+        int num = philosopherCount;
+        if (num > ActorCanvas.NODE_LIMIT) {
+            // Rings of pixels: forks half a seat ahead of their philosopher, as below
+            forkCanvas = ActorCanvas.ring(num, forkRadius, 0.5, COLOR_FORK_FREE);
+            philosopherCanvas = ActorCanvas.ring(num, philosopherRadius, 0, COLOR_THINKING);
+            for (ActorCanvas ring : new ActorCanvas[]{forkCanvas, philosopherCanvas}) {
+                ring.setLayoutX(centerX - ring.getWidth() / 2);
+                ring.setLayoutY(centerY - ring.getHeight() / 2);
+                getChildren().add(ring);
+            }
+            return;
+        }
+
         double angleStep = 2 * Math.PI / num;
+        // Seats shrink so that neighbours never overlap
+        double spacing = num > 1 ? Math.sin(angleStep / 2) : 1;
+        double seatRadius = Math.min(30, philosopherRadius * spacing * 0.8);
+        double forkLength = Math.min(20, forkRadius * spacing * 0.8);
 
         // Forks (placed between philosophers)
         for (int i = 0; i < num; i++) {
             // Place fork at angle i + 0.5 step
             double angle = (i + 0.5) * angleStep - Math.PI / 2; // -PI/2 to start from top
-            double x1 = centerX + (tableRadius - 20) * Math.cos(angle);
-            double y1 = centerY + (tableRadius - 20) * Math.sin(angle);
-            double x2 = centerX + (tableRadius + 20) * Math.cos(angle);
-            double y2 = centerY + (tableRadius + 20) * Math.sin(angle);
+            double x1 = centerX + (tableRadius - forkLength) * Math.cos(angle);
+            double y1 = centerY + (tableRadius - forkLength) * Math.sin(angle);
+            double x2 = centerX + (tableRadius + forkLength) * Math.cos(angle);
+            double y2 = centerY + (tableRadius + forkLength) * Math.sin(angle);
 
             Line fork = new Line(x1, y1, x2, y2);
             fork.setStroke(COLOR_FORK_FREE);
-            fork.setStrokeWidth(4);
+            fork.setStrokeWidth(num <= LABELLED_ACTORS ? 4 : 2);
             forks.add(fork);
             getChildren().add(fork);
         }
@@ -61,33 +102,37 @@ public class DiningPhilosophersView extends Pane {
             double x = centerX + philosopherRadius * Math.cos(angle);
             double y = centerY + philosopherRadius * Math.sin(angle);
 
-            Circle p = new Circle(x, y, 30, COLOR_THINKING);
+            Circle p = new Circle(x, y, seatRadius, COLOR_THINKING);
             p.setStroke(Color.BLACK);
             philosophers.add(p);
+            getChildren().add(p);
+            if (num > LABELLED_ACTORS) continue;
 
             Label lbl = new Label("P" + (i+1));
             lbl.setLayoutX(x - 10);
             lbl.setLayoutY(y - 10);
             lbl.setTextFill(Color.WHITE);
-
-            getChildren().addAll(p, lbl);
+            getChildren().add(lbl);
         }
     }
 
-    public void updatePhilosopherState(int id, String state) {
-        if (id >= 0 && id < philosophers.size()) {
-            Color c = COLOR_THINKING;
-            switch(state) {
-                case "EATING": c = COLOR_EATING; break;
-                case "HUNGRY": c = COLOR_HUNGRY; break;
-                case "THINKING": c = COLOR_THINKING; break;
-            }
-            philosophers.get(id).setFill(c);
+    /** Also the number of forks */
+    public int getPhilosopherCount() {
+        return philosopherCount;
+    }
+
+    public void updatePhilosopherState(int id, ActorState state) {
+        if (philosopherCanvas != null) {
+            philosopherCanvas.fill(id, STATE_COLORS[state.ordinal()]);
+        } else if (id >= 0 && id < philosophers.size()) {
+            philosophers.get(id).setFill(STATE_COLORS[state.ordinal()]);
         }
     }
 
     public void updateForkState(int id, boolean taken) {
-        if (id >= 0 && id < forks.size()) {
+        if (forkCanvas != null) {
+            forkCanvas.fill(id, taken ? COLOR_FORK_TAKEN : COLOR_FORK_FREE);
+        } else if (id >= 0 && id < forks.size()) {
             forks.get(id).setStroke(taken ? COLOR_FORK_TAKEN : COLOR_FORK_FREE);
         }
     }
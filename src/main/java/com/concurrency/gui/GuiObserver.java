@@ -1,85 +1,122 @@
 package com.concurrency.gui;
 
-import javafx.application.Platform;
+import javafx.animation.AnimationTimer;
 
 /**
- * Implementation of VisualizationObserver that updates the GUI on the JavaFX Application Thread.
+ * Implementation of SimulationObserver that draws into the views.
+ * Callbacks only record the new state in a ViewState and may come from any
+ * thread; an AnimationTimer applies the changed entries once per JavaFX pulse,
+ * so the FX queue never fills up and the views stay current however fast the
+ * simulation runs. Call start() on the FX thread to begin drawing.
  */
-public class GuiObserver implements VisualizationObserver {
+public class GuiObserver implements SimulationObserver {
+
+    private final ViewState model = new ViewState();
+    private AnimationTimer timer;
 
-    // We will inject View controllers here later via setters or constructor
     private ProducerConsumerView pcView;
     private DiningPhilosophersView dpView;
     private ReadersWritersView rwView;
 
     public void setProducerConsumerView(ProducerConsumerView view) {
         this.pcView = view;
+        model.resize(ViewState.Entity.PRODUCER, view.getProducerCount());
+        model.resize(ViewState.Entity.CONSUMER, view.getConsumerCount());
     }
 
     public void setDiningPhilosophersView(DiningPhilosophersView view) {
         this.dpView = view;
+        model.resize(ViewState.Entity.PHILOSOPHER, view.getPhilosopherCount());
+        model.resize(ViewState.Entity.FORK, view.getPhilosopherCount());
     }
 
     public void setReadersWritersView(ReadersWritersView view) {
         this.rwView = view;
+        model.resize(ViewState.Entity.READER, view.getReaderCount());
+        model.resize(ViewState.Entity.WRITER, view.getWriterCount());
+    }
+
+    /** Starts applying state changes to the views once per pulse; call on the FX thread */
+    public void start() {
+        if (timer != null) return;
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                model.apply(GuiObserver.this::render);
+            }
+        };
+        timer.start();
+    }
+
+    public void stop() {
+        if (timer != null) timer.stop();
+        timer = null;
+    }
+
+    /** States that were replaced by a newer one before a pulse drew them */
+    public long getCoalescedEvents() {
+        return model.getCoalescedEvents();
+    }
+
+    /** Events for actors the views do not draw */
+    public long getDroppedEvents() {
+        return model.getDroppedEvents();
     }
 
     // Producer-Consumer
     @Override
     public void onBufferUpdate(int currentSize, int capacity) {
-        if (pcView != null) {
-            Platform.runLater(() -> pcView.updateBuffer(currentSize, capacity));
-        }
+        if (pcView != null) model.setBuffer(currentSize, capacity);
     }
 
     @Override
-    public void onProducerState(String name, String state) {
-        if (pcView != null) {
-            Platform.runLater(() -> pcView.updateProducerState(name, state));
-        }
+    public void onProducerState(int producer, ActorState state) {
+        if (pcView != null) model.set(ViewState.Entity.PRODUCER, producer, state.ordinal());
     }
 
     @Override
-    public void onConsumerState(String name, String state) {
-        if (pcView != null) {
-            Platform.runLater(() -> pcView.updateConsumerState(name, state));
-        }
+    public void onConsumerState(int consumer, ActorState state) {
+        if (pcView != null) model.set(ViewState.Entity.CONSUMER, consumer, state.ordinal());
     }
 
     // Dining Philosophers
     @Override
-    public void onPhilosopherState(int id, String state) {
-        if (dpView != null) {
-            Platform.runLater(() -> dpView.updatePhilosopherState(id, state));
-        }
+    public void onPhilosopherState(int philosopher, ActorState state) {
+        if (dpView != null) model.set(ViewState.Entity.PHILOSOPHER, philosopher, state.ordinal());
     }
 
     @Override
-    public void onForkUpdate(int id, boolean taken) {
-        if (dpView != null) {
-            Platform.runLater(() -> dpView.updateForkState(id, taken));
-        }
+    public void onForkUpdate(int fork, boolean taken) {
+        if (dpView != null) model.set(ViewState.Entity.FORK, fork, taken ? 1 : 0);
     }
 
     // Readers-Writers
     @Override
-    public void onReaderState(String name, String state) {
-        if (rwView != null) {
-            Platform.runLater(() -> rwView.updateReaderState(name, state));
-        }
+    public void onReaderState(int reader, ActorState state) {
+        if (rwView != null) model.set(ViewState.Entity.READER, reader, state.ordinal());
     }
 
     @Override
-    public void onWriterState(String name, String state) {
-        if (rwView != null) {
-            Platform.runLater(() -> rwView.updateWriterState(name, state));
-        }
+    public void onWriterState(int writer, ActorState state) {
+        if (rwView != null) model.set(ViewState.Entity.WRITER, writer, state.ordinal());
     }
 
     @Override
-    public void onResourceState(String state) {
-        if (rwView != null) {
-            Platform.runLater(() -> rwView.updateResourceState(state));
+    public void onResourceState(ActorState state) {
+        if (rwView != null) model.set(ViewState.Entity.RESOURCE, 0, state.ordinal());
+    }
+
+    // On the FX thread, once per changed entry and pulse
+    private void render(ViewState.Entity entity, int actor, int value) {
+        switch (entity) {
+            case BUFFER: pcView.updateBuffer(value, model.getBufferCapacity()); break;
+            case PRODUCER: pcView.updateProducerState(actor, ActorState.fromCode(value)); break;
+            case CONSUMER: pcView.updateConsumerState(actor, ActorState.fromCode(value)); break;
+            case PHILOSOPHER: dpView.updatePhilosopherState(actor, ActorState.fromCode(value)); break;
+            case FORK: dpView.updateForkState(actor, value != 0); break;
+            case READER: rwView.updateReaderState(actor, ActorState.fromCode(value)); break;
+            case WRITER: rwView.updateWriterState(actor, ActorState.fromCode(value)); break;
+            case RESOURCE: rwView.updateResourceState(ActorState.fromCode(value)); break;
         }
     }
 }
@@ -1,20 +1,30 @@
 package com.concurrency.gui;
 
-import com.concurrency.DiningPhilosophers;
-import com.concurrency.ProducerConsumer;
-import com.concurrency.ReadersWriters;
+import com.concurrency.PerformanceMetrics;
+import com.concurrency.SimulationConfig;
+import com.concurrency.SimulationHandle;
+import com.concurrency.TraceReader;
 import javafx.application.Platform;
 import javafx.scene.Node;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
 public class MainController {
+    private static final long METRICS_PERIOD_MILLIS = 250;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
     private final BorderPane root;
     private final GuiObserver observer;
     private final MetricsPanel metricsPanel;
 
-    private Thread simulationThread;
-    private volatile boolean isRunning = false;
+    private SimulationHandle simulation; // null when no run is in progress
+    private TracePlayer tracePlayer; // only touched on the FX thread
+    private int actorsPerRole; // 0 keeps the simulation's defaults
+    private int capacity;
 
     // Views
     private final ProducerConsumerView pcView;
@@ -52,69 +62,147 @@ public class MainController {
     }
 
     private void switchView(Pane view, String type) {
-        if (isRunning) {
-            stopSimulation();
-        }
+        stopSimulation();
+        closeTrace();
         root.setCenter(view);
         currentSimulationView = view;
         currentSimulationType = type;
         metricsPanel.reset();
     }
 
+    /**
+     * Starts the current view's simulation with the chosen actors and capacity.
+     * @throws IllegalArgumentException if the simulation cannot run with them; nothing changes then
+     */
     public void startSimulation() {
-        if (isRunning || currentSimulationType.equals("NONE")) return;
+        // A run still stopping keeps its place until its actors are gone
+        if (currentSimulationType.equals("NONE") || simulation != null) return;
+
+        // Run for a very long duration effectively "infinite" until stop is called
+        SimulationConfig.Builder builder = SimulationConfig.builder(SimulationConfig.Simulation.valueOf(currentSimulationType))
+                .durationMillis(Long.MAX_VALUE);
+        if (actorsPerRole > 0) {
+            builder.producers(actorsPerRole).consumers(actorsPerRole).philosophers(actorsPerRole)
+                    .readers(actorsPerRole).writers(actorsPerRole);
+        }
+        if (capacity > 0) builder.capacity(capacity);
+        SimulationConfig config = builder.build();
+        closeTrace();
+        configureView(config);
 
-        isRunning = true;
         metricsPanel.reset();
+        // The panel is fed by periodic snapshots rather than per-operation callbacks
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        MetricsSampler sampler = new MetricsSampler(metrics, (total, window) -> {
+            metricsPanel.update(total, window);
+            metricsPanel.updateRendering(observer.getCoalescedEvents(), observer.getDroppedEvents());
+        }, Platform::runLater, METRICS_PERIOD_MILLIS);
+        SimulationHandle run = SimulationHandle.start(config, observer, metrics);
+        simulation = run;
+
+        Thread waiter = new Thread(() -> awaitRun(run, sampler), "Simulation-waiter");
+        waiter.setDaemon(true);
+        waiter.start();
+    }
 
-        simulationThread = new Thread(() -> {
-            try {
-                // Run for a very long duration effectively "infinite" until stop is called
-                long duration = Long.MAX_VALUE;
-
-                switch (currentSimulationType) {
-                    case "PRODUCER_CONSUMER":
-                        ProducerConsumer.run(duration, observer);
-                        break;
-                    case "DINING_PHILOSOPHERS":
-                        DiningPhilosophers.run(duration, observer);
-                        break;
-                    case "READERS_WRITERS":
-                        ReadersWriters.run(duration, observer);
-                        break;
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            } finally {
-                isRunning = false;
+    // Finishes the run's handoff off the FX thread, however the run ends
+    private void awaitRun(SimulationHandle run, MetricsSampler sampler) {
+        try {
+            while (!run.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // a slow stop is logged by the handle; keep waiting
             }
+        } catch (InterruptedException e) {
+            return;
+        }
+        sampler.close();
+        Platform.runLater(() -> {
+            metricsPanel.showShutdown(run.getShutdownNanos());
+            if (simulation == run) simulation = null;
         });
-        simulationThread.setDaemon(true);
-        simulationThread.start();
+    }
 
-        // Start a separate thread to update metrics (in a real app, metrics would be passed via observer too,
-        // but for now we'll just let the visual updates handle the "motion" and maybe add specific metric updates later if needed.
-        // The existing PerformanceMetrics class prints to console at end,
-        // to show them live we'd need to poll or have callbacks.
-        // For this iteration, let's just assume the visual state is the primary feedback,
-        // or we can modify the backend to push metrics.
-        // Given the plan "Implement the 'Metrics Panel' to display real-time stats", we should ideally link them.
-        // Refactoring backend to push metrics to observer would be best, but I'll stick to the plan constraints.
-        // Let's rely on the console metrics for final report, and visual for live state.
+    /** Actors of every role for the next run, 0 for the simulation's defaults */
+    public void setActorsPerRole(int actors) {
+        this.actorsPerRole = actors;
     }
 
+    /** Buffer capacity for the next Producer-Consumer run, 0 for the default */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // Rebuilds the current view for the run and sizes the observer's model to it
+    private void configureView(SimulationConfig config) {
+        switch (config.getSimulation()) {
+            case PRODUCER_CONSUMER:
+                pcView.configure(config);
+                observer.setProducerConsumerView(pcView);
+                break;
+            case DINING_PHILOSOPHERS:
+                dpView.configure(config);
+                observer.setDiningPhilosophersView(dpView);
+                break;
+            case READERS_WRITERS:
+                rwView.configure(config);
+                observer.setReadersWritersView(rwView);
+                break;
+        }
+    }
+
+    /** Asks the run to stop; returns at once, and the run's waiter reports the shutdown */
     public void stopSimulation() {
-        if (!isRunning) return;
-
-        if (simulationThread != null) {
-            simulationThread.interrupt();
-            try {
-                // Give it a moment to stop cleanly
-                simulationThread.join(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        if (simulation != null) simulation.stop();
+    }
+
+    /**
+     * Shows the trace's simulation and plays the trace into it.
+     * The listener receives the position of each rendered frame, in nanoseconds.
+     */
+    public void openTrace(Path file, LongConsumer positionListener) {
+        TraceReader reader = TraceReader.open(file);
+        switch (reader.getWorkload().getOrDefault("simulation", "NONE")) {
+            case "PRODUCER_CONSUMER": showProducerConsumer(); break;
+            case "DINING_PHILOSOPHERS": showDiningPhilosophers(); break;
+            case "READERS_WRITERS": showReadersWriters(); break;
+            default: throw new IllegalArgumentException(file + " does not name its simulation");
+        }
+        configureView(SimulationConfig.builder(SimulationConfig.Simulation.valueOf(reader.getWorkload().get("simulation")))
+                .producers(reader.getWorkloadInt("producers", 2))
+                .consumers(reader.getWorkloadInt("consumers", 3))
+                .capacity(reader.getWorkloadInt("capacity", 5))
+                .philosophers(reader.getWorkloadInt("philosophers", 5))
+                .readers(reader.getWorkloadInt("readers", 3))
+                .writers(reader.getWorkloadInt("writers", 2))
+                .build());
+        tracePlayer = new TracePlayer(reader, observer, Platform::runLater);
+        tracePlayer.setPositionListener(positionListener);
+        tracePlayer.play();
+    }
+
+    /** Nanoseconds from the first to the last event of the open trace, 0 without one */
+    public long getTraceDuration() {
+        return tracePlayer != null ? tracePlayer.getDuration() : 0;
+    }
+
+    public void toggleTracePlayback() {
+        if (tracePlayer == null) return;
+        if (tracePlayer.isPlaying()) {
+            tracePlayer.pause();
+        } else {
+            tracePlayer.play();
         }
-        isRunning = false;
+    }
+
+    public void setTraceSpeed(double speed) {
+        if (tracePlayer != null) tracePlayer.setSpeed(speed);
+    }
+
+    public void seekTrace(long nanos) {
+        if (tracePlayer != null) tracePlayer.seek(nanos);
+    }
+
+    private void closeTrace() {
+        if (tracePlayer != null) tracePlayer.close();
+        tracePlayer = null;
     }
 }
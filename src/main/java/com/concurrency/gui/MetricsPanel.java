@@ -1,5 +1,7 @@
 package com.concurrency.gui;
 
+import com.concurrency.MetricsSnapshot;
+import com.concurrency.PerformanceMetrics;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Insets;
@@ -9,6 +11,12 @@ public class MetricsPanel extends VBox {
     private final Label waitTimeLabel = new Label("Avg Wait: 0 ms");
     private final Label throughputLabel = new Label("Throughput: 0 ops/s");
     private final Label durationLabel = new Label("Duration: 0 s");
+    private final Label rollingThroughputLabel = new Label("Rolling Throughput: 0 ops/s");
+    private final Label rollingP99Label = new Label("Rolling p99 Wait: 0 ms");
+    private final Label queueDepthLabel = new Label("Queue Depth: -");
+    private final Label watchdogLabel = new Label("Deadlocks: 0, Starved Waits: 0");
+    private final Label renderingLabel = new Label("Coalesced Events: 0, Dropped: 0");
+    private final Label shutdownLabel = new Label("Last Shutdown: -");
 
     public MetricsPanel() {
         setPadding(new Insets(10));
@@ -18,7 +26,9 @@ public class MetricsPanel extends VBox {
         Label title = new Label("Real-time Metrics");
         title.setStyle("-fx-font-weight: bold;");
 
-        getChildren().addAll(title, durationLabel, operationsLabel, throughputLabel, waitTimeLabel);
+        getChildren().addAll(title, durationLabel, operationsLabel, throughputLabel, waitTimeLabel,
+                rollingThroughputLabel, rollingP99Label, queueDepthLabel, watchdogLabel,
+                renderingLabel, shutdownLabel);
     }
 
     public void updateMetrics(long ops, double avgWait, double throughput, double duration) {
@@ -30,7 +40,40 @@ public class MetricsPanel extends VBox {
         });
     }
 
+    /** Shows a cumulative snapshot and the latest sampling window; call on the FX thread */
+    public void update(MetricsSnapshot total, MetricsSnapshot window) {
+        operationsLabel.setText(String.format("Operations: %d", total.getTotalOperations()));
+        waitTimeLabel.setText(String.format("Avg Wait: %.2f ms", total.getAverageWaitTime()));
+        throughputLabel.setText(String.format("Throughput: %.2f ops/s", total.getThroughput()));
+        durationLabel.setText(String.format("Duration: %.2f s", total.getDurationSeconds()));
+        rollingThroughputLabel.setText(String.format("Rolling Throughput: %.2f ops/s", window.getThroughput()));
+        rollingP99Label.setText(String.format("Rolling p99 Wait: %.2f ms", window.getWaitTimePercentile(99)));
+        queueDepthLabel.setText(total.getQueueDepth() == MetricsSnapshot.NO_QUEUE
+                ? "Queue Depth: -" : String.format("Queue Depth: %d", total.getQueueDepth()));
+        long deadlocks = total.getCount(PerformanceMetrics.Counter.DEADLOCKS);
+        watchdogLabel.setText(String.format("Deadlocks: %d, Starved Waits: %d",
+                deadlocks, total.getCount(PerformanceMetrics.Counter.STARVED_WAITS)));
+        watchdogLabel.setStyle(deadlocks > 0 ? "-fx-text-fill: red;" : "");
+    }
+
+    /** Shows how many events the views folded into later frames or could not draw; call on the FX thread */
+    public void updateRendering(long coalesced, long dropped) {
+        renderingLabel.setText(String.format("Coalesced Events: %d, Dropped: %d", coalesced, dropped));
+    }
+
+    /** Shows how long the last stopped run took to wind down; call on the FX thread */
+    public void showShutdown(long nanos) {
+        shutdownLabel.setText(nanos >= 0 ? String.format("Last Shutdown: %.1f ms", nanos / 1_000_000.0) : "Last Shutdown: -");
+    }
+
     public void reset() {
          updateMetrics(0, 0, 0, 0);
+         javafx.application.Platform.runLater(() -> {
+             rollingThroughputLabel.setText("Rolling Throughput: 0 ops/s");
+             rollingP99Label.setText("Rolling p99 Wait: 0 ms");
+             queueDepthLabel.setText("Queue Depth: -");
+             watchdogLabel.setText("Deadlocks: 0, Starved Waits: 0");
+             watchdogLabel.setStyle("");
+         });
     }
 }
@@ -0,0 +1,90 @@
+package com.concurrency.gui;
+
+import com.concurrency.MetricsSnapshot;
+import com.concurrency.PerformanceMetrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Polls a running simulation's metrics at a fixed rate for live display.
+ * <p>
+ * Each tick takes one snapshot, which only reads the simulation's adders and
+ * histogram stripes, so the simulation threads never wait on the sampler. The
+ * consumer receives the cumulative snapshot together with the window since the
+ * previously delivered one, through the UI executor. A new update is only
+ * posted once the previous one has been applied; a skipped tick simply widens
+ * the next window.
+ */
+public class MetricsSampler implements AutoCloseable {
+    private final PerformanceMetrics metrics;
+    private final BiConsumer<MetricsSnapshot, MetricsSnapshot> consumer;
+    private final Executor uiExecutor;
+    private final long periodMillis;
+    private final Thread sampler;
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+    private volatile boolean running = true;
+
+    // Only touched by the sampler thread
+    private MetricsSnapshot previous;
+
+    public MetricsSampler(PerformanceMetrics metrics, BiConsumer<MetricsSnapshot, MetricsSnapshot> consumer,
+                          Executor uiExecutor, long periodMillis) {
+        if (periodMillis <= 0) throw new IllegalArgumentException("period must be positive: " + periodMillis);
+        this.metrics = metrics;
+        this.consumer = consumer;
+        this.uiExecutor = uiExecutor;
+        this.periodMillis = periodMillis;
+        this.sampler = new Thread(this::sampleLoop, "MetricsSampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /** Stops sampling after one last update */
+    @Override
+    public void close() {
+        running = false;
+        sampler.interrupt();
+        try {
+            sampler.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                // close() wakes us for a final sample
+            }
+            sample();
+        }
+    }
+
+    void sample() {
+        if (framePending.get()) return;
+        MetricsSnapshot current = metrics.snapshot();
+        if (previous != null && rebased(previous, current)) previous = null;
+        MetricsSnapshot window = previous != null ? current.since(previous) : current;
+        previous = current;
+
+        framePending.set(true);
+        uiExecutor.execute(() -> {
+            try {
+                consumer.accept(current, window);
+            } finally {
+                framePending.set(false);
+            }
+        });
+    }
+
+    // start() rebases the metrics after the warmup; a window across it would be meaningless
+    private static boolean rebased(MetricsSnapshot previous, MetricsSnapshot current) {
+        return current.getElapsedNanos() < previous.getElapsedNanos()
+                || current.getTotalOperations() < previous.getTotalOperations()
+                || (previous.getElapsedNanos() == 0 && current.getElapsedNanos() > 0);
+    }
+}
@@ -1,19 +1,32 @@
 package com.concurrency.gui;
 
+import com.concurrency.SimulationConfig;
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.paint.Color;
 import javafx.scene.control.Label;
+import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Pos;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ProducerConsumerView extends Pane {
+    private static final double WIDTH = 700;
+    private static final int LABELLED_ACTORS = 8; // beyond this, smaller nodes without names
+
     private final List<Rectangle> bufferSlots = new ArrayList<>();
     private final List<Rectangle> producers = new ArrayList<>();
     private final List<Rectangle> consumers = new ArrayList<>();
+    // Used instead of the nodes above past ActorCanvas.NODE_LIMIT
+    private ActorCanvas producerCanvas;
+    private ActorCanvas consumerCanvas;
+    private Rectangle bufferFill;
+    private int producerCount;
+    private int consumerCount;
 
     // Colors
     private static final Color COLOR_WORKING = Color.GREEN;
@@ -22,12 +35,32 @@ public class ProducerConsumerView extends Pane {
     private static final Color COLOR_EMPTY_SLOT = Color.WHITE;
     private static final Color COLOR_FULL_SLOT = Color.PURPLE;
 
+    // Indexed by ActorState ordinal
+    private static final Color[] STATE_COLORS = new Color[ActorState.values().length];
+    static {
+        Arrays.fill(STATE_COLORS, COLOR_IDLE);
+        STATE_COLORS[ActorState.PRODUCING.ordinal()] = COLOR_WORKING;
+        STATE_COLORS[ActorState.CONSUMING.ordinal()] = COLOR_WORKING;
+        STATE_COLORS[ActorState.WAITING.ordinal()] = COLOR_WAITING;
+    }
+
     public ProducerConsumerView() {
         setStyle("-fx-background-color: #e0e0e0;");
-        setupLayout();
+        configure(SimulationConfig.builder(SimulationConfig.Simulation.PRODUCER_CONSUMER).build());
     }
 
-    private void setupLayout() {
+    /** Rebuilds the view for the run's producers, consumers and buffer capacity; call on the FX thread */
+    public void configure(SimulationConfig config) {
+        getChildren().clear();
+        bufferSlots.clear();
+        producers.clear();
+        consumers.clear();
+        producerCanvas = null;
+        consumerCanvas = null;
+        bufferFill = null;
+        producerCount = config.getProducers();
+        consumerCount = config.getConsumers();
+
         VBox mainLayout = new VBox(20);
         mainLayout.setAlignment(Pos.CENTER);
         mainLayout.setPrefSize(800, 600);
@@ -35,52 +68,99 @@ public class ProducerConsumerView extends Pane {
         mainLayout.layoutYProperty().bind(heightProperty().subtract(mainLayout.heightProperty()).divide(2));
 
         // Producers Area
-        HBox producersBox = new HBox(10);
-        producersBox.setAlignment(Pos.CENTER);
-        for (int i = 0; i < 2; i++) {
-            VBox pContainer = new VBox(5);
-            pContainer.setAlignment(Pos.CENTER);
-            Rectangle p = new Rectangle(50, 50, COLOR_IDLE);
-            p.setStroke(Color.BLACK);
-            producers.add(p);
-            pContainer.getChildren().addAll(new Label("Prod " + (i+1)), p);
-            producersBox.getChildren().add(pContainer);
+        Pane producersBox;
+        if (producerCount > ActorCanvas.NODE_LIMIT) {
+            producerCanvas = ActorCanvas.grid(producerCount, WIDTH, 150, COLOR_IDLE);
+            producersBox = new StackPane(producerCanvas);
+        } else {
+            producersBox = actorBox(producerCount, "Prod ", producers);
         }
 
         // Buffer Area
-        HBox bufferBox = new HBox(5);
-        bufferBox.setAlignment(Pos.CENTER);
-        bufferBox.setStyle("-fx-border-color: black; -fx-padding: 10; -fx-background-color: white;");
-        for (int i = 0; i < 5; i++) {
-            Rectangle slot = new Rectangle(40, 40, COLOR_EMPTY_SLOT);
-            slot.setStroke(Color.BLACK);
-            bufferSlots.add(slot);
-            bufferBox.getChildren().add(slot);
+        Pane bufferBox;
+        int capacity = config.getCapacity();
+        if (capacity > ActorCanvas.NODE_LIMIT) {
+            // A fill level instead of a slot per element
+            Rectangle outline = new Rectangle(WIDTH, 40, COLOR_EMPTY_SLOT);
+            outline.setStroke(Color.BLACK);
+            bufferFill = new Rectangle(0, 40, COLOR_FULL_SLOT);
+            StackPane bar = new StackPane(outline, bufferFill);
+            StackPane.setAlignment(bufferFill, Pos.CENTER_LEFT);
+            bufferBox = bar;
+        } else {
+            FlowPane slots = new FlowPane(5, 5);
+            slots.setAlignment(Pos.CENTER);
+            slots.setPrefWrapLength(WIDTH);
+            slots.setStyle("-fx-border-color: black; -fx-padding: 10; -fx-background-color: white;");
+            double size = capacity <= 16 ? 40 : 15;
+            for (int i = 0; i < capacity; i++) {
+                Rectangle slot = new Rectangle(size, size, COLOR_EMPTY_SLOT);
+                slot.setStroke(Color.BLACK);
+                bufferSlots.add(slot);
+                slots.getChildren().add(slot);
+            }
+            bufferBox = slots;
         }
 
         // Consumers Area
-        HBox consumersBox = new HBox(10);
-        consumersBox.setAlignment(Pos.CENTER);
-        for (int i = 0; i < 3; i++) {
-            VBox cContainer = new VBox(5);
-            cContainer.setAlignment(Pos.CENTER);
-            Rectangle c = new Rectangle(50, 50, COLOR_IDLE);
-            c.setStroke(Color.BLACK);
-            consumers.add(c);
-            cContainer.getChildren().addAll(new Label("Cons " + (i+1)), c);
-            consumersBox.getChildren().add(cContainer);
+        Pane consumersBox;
+        if (consumerCount > ActorCanvas.NODE_LIMIT) {
+            consumerCanvas = ActorCanvas.grid(consumerCount, WIDTH, 150, COLOR_IDLE);
+            consumersBox = new StackPane(consumerCanvas);
+        } else {
+            consumersBox = actorBox(consumerCount, "Cons ", consumers);
         }
 
         mainLayout.getChildren().addAll(
-            new Label("Producers"), producersBox,
-            new Label("Buffer (Size: 5)"), bufferBox,
-            new Label("Consumers"), consumersBox
+            new Label("Producers (" + producerCount + ")"), producersBox,
+            new Label("Buffer (Size: " + capacity + ")"), bufferBox,
+            new Label("Consumers (" + consumerCount + ")"), consumersBox
         );
         getChildren().add(mainLayout);
     }
 
+    // A node per actor, named while there are few of them
+    private static Pane actorBox(int count, String name, List<Rectangle> nodes) {
+        if (count <= LABELLED_ACTORS) {
+            HBox box = new HBox(10);
+            box.setAlignment(Pos.CENTER);
+            for (int i = 0; i < count; i++) {
+                VBox container = new VBox(5);
+                container.setAlignment(Pos.CENTER);
+                Rectangle r = new Rectangle(50, 50, COLOR_IDLE);
+                r.setStroke(Color.BLACK);
+                nodes.add(r);
+                container.getChildren().addAll(new Label(name + (i+1)), r);
+                box.getChildren().add(container);
+            }
+            return box;
+        }
+        FlowPane box = new FlowPane(4, 4);
+        box.setAlignment(Pos.CENTER);
+        box.setPrefWrapLength(WIDTH);
+        for (int i = 0; i < count; i++) {
+            Rectangle r = new Rectangle(20, 20, COLOR_IDLE);
+            r.setStroke(Color.BLACK);
+            nodes.add(r);
+            box.getChildren().add(r);
+        }
+        return box;
+    }
+
+    public int getProducerCount() {
+        return producerCount;
+    }
+
+    public int getConsumerCount() {
+        return consumerCount;
+    }
+
     public void updateBuffer(int currentSize, int capacity) {
-        for (int i = 0; i < capacity; i++) {
+        if (bufferFill != null) {
+            bufferFill.setWidth(capacity > 0 ? WIDTH * Math.min(currentSize, capacity) / capacity : 0);
+            return;
+        }
+        for (int i = 0; i < Math.min(capacity, bufferSlots.size()); i++) {
             if (i < currentSize) {
                 bufferSlots.get(i).setFill(COLOR_FULL_SLOT);
             } else {
@@ -89,31 +169,19 @@ public class ProducerConsumerView extends Pane {
         }
     }
 
-    public void updateProducerState(String name, String state) {
-        // name format: "Producer-1"
-        int index = Integer.parseInt(name.split("-")[1]) - 1;
-        if (index >= 0 && index < producers.size()) {
-            Color c = COLOR_IDLE;
-            switch(state) {
-                case "PRODUCING": c = COLOR_WORKING; break;
-                case "WAITING": c = COLOR_WAITING; break;
-                case "IDLE": c = COLOR_IDLE; break;
-            }
-            producers.get(index).setFill(c);
+    public void updateProducerState(int producer, ActorState state) {
+        if (producerCanvas != null) {
+            producerCanvas.fill(producer, STATE_COLORS[state.ordinal()]);
+        } else if (producer >= 0 && producer < producers.size()) {
+            producers.get(producer).setFill(STATE_COLORS[state.ordinal()]);
         }
     }
 
-    public void updateConsumerState(String name, String state) {
-        // name format: "Consumer-1"
-        int index = Integer.parseInt(name.split("-")[1]) - 1;
-        if (index >= 0 && index < consumers.size()) {
-            Color c = COLOR_IDLE;
-            switch(state) {
-                case "CONSUMING": c = COLOR_WORKING; break;
-                case "WAITING": c = COLOR_WAITING; break;
-                case "IDLE": c = COLOR_IDLE; break;
-            }
-            consumers.get(index).setFill(c);
+    public void updateConsumerState(int consumer, ActorState state) {
+        if (consumerCanvas != null) {
+            consumerCanvas.fill(consumer, STATE_COLORS[state.ordinal()]);
+        } else if (consumer >= 0 && consumer < consumers.size()) {
+            consumers.get(consumer).setFill(STATE_COLORS[state.ordinal()]);
         }
     }
 }
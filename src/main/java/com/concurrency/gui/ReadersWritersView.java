@@ -1,17 +1,27 @@
 package com.concurrency.gui;
 
+import com.concurrency.SimulationConfig;
+
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.paint.Color;
 import javafx.scene.control.Label;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ReadersWritersView extends Pane {
     private final List<Circle> readers = new ArrayList<>();
     private final List<Rectangle> writers = new ArrayList<>();
     private Rectangle sharedResource;
+    // Used instead of the nodes above past ActorCanvas.NODE_LIMIT
+    private ActorCanvas readerCanvas;
+    private ActorCanvas writerCanvas;
+    private int readerCount;
+    private int writerCount;
+
+    private static final int LABELLED_ACTORS = 8; // beyond this, nodes without names
 
     // Colors
     private static final Color COLOR_IDLE = Color.LIGHTBLUE;
@@ -20,12 +30,35 @@ public class ReadersWritersView extends Pane {
     private static final Color COLOR_WAITING = Color.ORANGE;
     private static final Color COLOR_RESOURCE_IDLE = Color.GRAY;
 
+    // Indexed by ActorState ordinal
+    private static final Color[] STATE_COLORS = new Color[ActorState.values().length];
+    private static final Color[] RESOURCE_COLORS = new Color[ActorState.values().length];
+    static {
+        Arrays.fill(STATE_COLORS, COLOR_IDLE);
+        STATE_COLORS[ActorState.READING.ordinal()] = COLOR_READING;
+        STATE_COLORS[ActorState.WRITING.ordinal()] = COLOR_WRITING;
+        STATE_COLORS[ActorState.WAITING.ordinal()] = COLOR_WAITING;
+
+        Arrays.fill(RESOURCE_COLORS, COLOR_RESOURCE_IDLE);
+        RESOURCE_COLORS[ActorState.READING.ordinal()] = COLOR_READING;
+        RESOURCE_COLORS[ActorState.WRITING.ordinal()] = COLOR_WRITING;
+    }
+
     public ReadersWritersView() {
         setStyle("-fx-background-color: #e0e0e0;");
-        setupLayout();
+        configure(SimulationConfig.builder(SimulationConfig.Simulation.READERS_WRITERS).build());
     }
 
-    private void setupLayout() {
+    /** Rebuilds the view for the run's readers and writers; call on the FX thread */
+    public void configure(SimulationConfig config) {
+        getChildren().clear();
+        readers.clear();
+        writers.clear();
+        readerCanvas = null;
+        writerCanvas = null;
+        readerCount = config.getReaders();
+        writerCount = config.getWriters();
+
         double centerX = 400;
         double centerY = 300;
 
@@ -42,81 +75,93 @@ public class ReadersWritersView extends Pane {
 
         getChildren().addAll(sharedResource, resourceLabel);
 
-        // Readers (Top semi-circle)
-        int numReaders = 3;
+        // Readers (Top semi-circle, or a grid above the resource)
+        int numReaders = readerCount;
         double readerRadius = 150;
-        for (int i = 0; i < numReaders; i++) {
-            double angle = Math.PI + (i + 1) * (Math.PI / (numReaders + 1)); // distribute over top half
-            double x = centerX + readerRadius * Math.cos(angle);
-            double y = centerY + readerRadius * Math.sin(angle);
-
-            Circle r = new Circle(x, y, 25, COLOR_IDLE);
-            r.setStroke(Color.BLACK);
-            readers.add(r);
-
-            Label lbl = new Label("R" + (i+1));
-            lbl.setLayoutX(x - 10);
-            lbl.setLayoutY(y - 35);
-
-            getChildren().addAll(r, lbl);
+        if (numReaders > ActorCanvas.NODE_LIMIT) {
+            readerCanvas = ActorCanvas.grid(numReaders, 700, 180, COLOR_IDLE);
+            readerCanvas.setLayoutX(centerX - readerCanvas.getWidth() / 2);
+            readerCanvas.setLayoutY(centerY - 80 - readerCanvas.getHeight());
+            getChildren().add(readerCanvas);
+        } else {
+            for (int i = 0; i < numReaders; i++) {
+                double angle = Math.PI + (i + 1) * (Math.PI / (numReaders + 1)); // distribute over top half
+                double x = centerX + readerRadius * Math.cos(angle);
+                double y = centerY + readerRadius * Math.sin(angle);
+
+                Circle r = new Circle(x, y, nodeSize(numReaders, readerRadius, 25), COLOR_IDLE);
+                r.setStroke(Color.BLACK);
+                readers.add(r);
+                getChildren().add(r);
+                if (numReaders > LABELLED_ACTORS) continue;
+
+                Label lbl = new Label("R" + (i+1));
+                lbl.setLayoutX(x - 10);
+                lbl.setLayoutY(y - 35);
+                getChildren().add(lbl);
+            }
         }
 
-        // Writers (Bottom semi-circle)
-        int numWriters = 2;
+        // Writers (Bottom semi-circle, or a grid below the resource)
+        int numWriters = writerCount;
         double writerRadius = 150;
-        for (int i = 0; i < numWriters; i++) {
-            double angle = (i + 1) * (Math.PI / (numWriters + 1)); // distribute over bottom half
-            double x = centerX + writerRadius * Math.cos(angle);
-            double y = centerY + writerRadius * Math.sin(angle);
+        if (numWriters > ActorCanvas.NODE_LIMIT) {
+            writerCanvas = ActorCanvas.grid(numWriters, 700, 180, COLOR_IDLE);
+            writerCanvas.setLayoutX(centerX - writerCanvas.getWidth() / 2);
+            writerCanvas.setLayoutY(centerY + 80);
+            getChildren().add(writerCanvas);
+        } else {
+            for (int i = 0; i < numWriters; i++) {
+                double angle = (i + 1) * (Math.PI / (numWriters + 1)); // distribute over bottom half
+                double x = centerX + writerRadius * Math.cos(angle);
+                double y = centerY + writerRadius * Math.sin(angle);
+
+                double half = nodeSize(numWriters, writerRadius, 25);
+                Rectangle w = new Rectangle(x - half, y - half, 2 * half, 2 * half);
+                w.setFill(COLOR_IDLE);
+                w.setStroke(Color.BLACK);
+                writers.add(w);
+                getChildren().add(w);
+                if (numWriters > LABELLED_ACTORS) continue;
+
+                Label lbl = new Label("W" + (i+1));
+                lbl.setLayoutX(x - 10);
+                lbl.setLayoutY(y + 30);
+                getChildren().add(lbl);
+            }
+        }
+    }
 
-            Rectangle w = new Rectangle(x - 25, y - 25, 50, 50);
-            w.setFill(COLOR_IDLE);
-            w.setStroke(Color.BLACK);
-            writers.add(w);
+    // Half the node width: shrinks as a half circle fills up so neighbours never overlap
+    private static double nodeSize(int count, double radius, double max) {
+        return Math.min(max, Math.PI * radius / (count + 1) * 0.4);
+    }
 
-            Label lbl = new Label("W" + (i+1));
-            lbl.setLayoutX(x - 10);
-            lbl.setLayoutY(y + 30);
+    public int getReaderCount() {
+        return readerCount;
+    }
 
-            getChildren().addAll(w, lbl);
-        }
+    public int getWriterCount() {
+        return writerCount;
     }
 
-    public void updateResourceState(String state) {
-        Color c = COLOR_RESOURCE_IDLE;
-        switch(state) {
-            case "READING": c = COLOR_READING; break;
-            case "WRITING": c = COLOR_WRITING; break;
-            case "IDLE": c = COLOR_RESOURCE_IDLE; break;
-        }
-        sharedResource.setFill(c);
+    public void updateResourceState(ActorState state) {
+        sharedResource.setFill(RESOURCE_COLORS[state.ordinal()]);
     }
 
-    public void updateReaderState(String name, String state) {
-        // "Reader-1"
-        int index = Integer.parseInt(name.split("-")[1]) - 1;
-        if (index >= 0 && index < readers.size()) {
-            Color c = COLOR_IDLE;
-            switch(state) {
-                case "READING": c = COLOR_READING; break;
-                case "WAITING": c = COLOR_WAITING; break;
-                case "IDLE": c = COLOR_IDLE; break;
-            }
-            readers.get(index).setFill(c);
+    public void updateReaderState(int reader, ActorState state) {
+        if (readerCanvas != null) {
+            readerCanvas.fill(reader, STATE_COLORS[state.ordinal()]);
+        } else if (reader >= 0 && reader < readers.size()) {
+            readers.get(reader).setFill(STATE_COLORS[state.ordinal()]);
         }
     }
 
-    public void updateWriterState(String name, String state) {
-        // "Writer-1"
-        int index = Integer.parseInt(name.split("-")[1]) - 1;
-        if (index >= 0 && index < writers.size()) {
-            Color c = COLOR_IDLE;
-            switch(state) {
-                case "WRITING": c = COLOR_WRITING; break;
-                case "WAITING": c = COLOR_WAITING; break;
-                case "IDLE": c = COLOR_IDLE; break;
-            }
-            writers.get(index).setFill(c);
+    public void updateWriterState(int writer, ActorState state) {
+        if (writerCanvas != null) {
+            writerCanvas.fill(writer, STATE_COLORS[state.ordinal()]);
+        } else if (writer >= 0 && writer < writers.size()) {
+            writers.get(writer).setFill(STATE_COLORS[state.ordinal()]);
         }
     }
 }
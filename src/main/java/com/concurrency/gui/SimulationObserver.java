@@ -0,0 +1,30 @@
+package com.concurrency.gui;
+
+/**
+ * Allocation-free observer for concurrency simulations.
+ * Actors are identified by their zero-based index within their role
+ * (producer 0 is "Producer-1"), and states by ActorState constants, so an
+ * implementation can update its model with a direct array index.
+ * Indexes may be -1 for actors created outside a simulation run.
+ *
+ * Use StringObserverAdapter to drive a VisualizationObserver from this API.
+ */
+public interface SimulationObserver {
+    // Producer-Consumer
+    void onBufferUpdate(int currentSize, int capacity);
+    void onProducerState(int producer, ActorState state); // PRODUCING, WAITING, IDLE
+    void onConsumerState(int consumer, ActorState state); // CONSUMING, WAITING, IDLE
+
+    // Dining Philosophers
+    void onPhilosopherState(int philosopher, ActorState state); // THINKING, HUNGRY, EATING
+    void onForkUpdate(int fork, boolean taken);
+
+    // Readers-Writers
+    void onReaderState(int reader, ActorState state); // READING, WAITING, IDLE
+    void onWriterState(int writer, ActorState state); // WRITING, WAITING, IDLE
+    void onResourceState(ActorState state); // READING, WRITING, IDLE
+
+    /** A deadlock or starved wait found by the watchdog; called from the watchdog thread */
+    default void onWatchdogAlert(String finding) {
+    }
+}
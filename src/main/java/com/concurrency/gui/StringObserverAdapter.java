@@ -0,0 +1,87 @@
+package com.concurrency.gui;
+
+import java.util.Arrays;
+
+/**
+ * Compatibility bridge from SimulationObserver to the original String-based
+ * VisualizationObserver: indexes become names like "Producer-1" and states
+ * become their constant names. Names are cached per index, so steady-state
+ * forwarding does not allocate either.
+ */
+public class StringObserverAdapter implements SimulationObserver {
+    private final VisualizationObserver delegate;
+    private final NameCache producers = new NameCache("Producer-");
+    private final NameCache consumers = new NameCache("Consumer-");
+    private final NameCache readers = new NameCache("Reader-");
+    private final NameCache writers = new NameCache("Writer-");
+
+    public StringObserverAdapter(VisualizationObserver delegate) {
+        this.delegate = delegate;
+    }
+
+    /** Wraps the observer, passing null through so callers can keep their null checks */
+    public static SimulationObserver adapt(VisualizationObserver observer) {
+        return observer == null ? null : new StringObserverAdapter(observer);
+    }
+
+    @Override
+    public void onBufferUpdate(int currentSize, int capacity) {
+        delegate.onBufferUpdate(currentSize, capacity);
+    }
+
+    @Override
+    public void onProducerState(int producer, ActorState state) {
+        delegate.onProducerState(producers.name(producer), state.name());
+    }
+
+    @Override
+    public void onConsumerState(int consumer, ActorState state) {
+        delegate.onConsumerState(consumers.name(consumer), state.name());
+    }
+
+    @Override
+    public void onPhilosopherState(int philosopher, ActorState state) {
+        delegate.onPhilosopherState(philosopher, state.name());
+    }
+
+    @Override
+    public void onForkUpdate(int fork, boolean taken) {
+        delegate.onForkUpdate(fork, taken);
+    }
+
+    @Override
+    public void onReaderState(int reader, ActorState state) {
+        delegate.onReaderState(readers.name(reader), state.name());
+    }
+
+    @Override
+    public void onWriterState(int writer, ActorState state) {
+        delegate.onWriterState(writers.name(writer), state.name());
+    }
+
+    @Override
+    public void onResourceState(ActorState state) {
+        delegate.onResourceState(state.name());
+    }
+
+    /** Lazily built "Prefix-N" names; races only ever build an identical string twice */
+    private static class NameCache {
+        private final String prefix;
+        private volatile String[] names = new String[0];
+
+        NameCache(String prefix) {
+            this.prefix = prefix;
+        }
+
+        String name(int index) {
+            if (index < 0) return prefix + (index + 1);
+            String[] current = names;
+            if (index < current.length && current[index] != null) return current[index];
+
+            String[] grown = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+            grown[index] = prefix + (index + 1);
+            names = grown;
+            return grown[index];
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.concurrency.gui;
+
+import com.concurrency.TraceReader;
+import com.concurrency.TraceRecorder;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Plays a recorded trace back into a SimulationObserver, typically the
+ * GuiObserver of the views, so a run can be watched after it finished at full
+ * speed headless.
+ * <p>
+ * A player thread moves the playback position once per frame (wall time times
+ * the speed) and folds every event up to it into a model of the run's state:
+ * the buffer size, every actor's state and every fork. Only the entries that
+ * changed since the last frame are delivered, in one batch through the UI
+ * executor, and a new batch is only posted once the previous one has been
+ * applied. The views therefore always show exactly the recorded state at the
+ * position, whatever the speed. Seeking backwards rebuilds the model from the
+ * start of the trace.
+ */
+public class TracePlayer implements AutoCloseable {
+    private static final TraceRecorder.Type[] TYPES = TraceRecorder.Type.values();
+    private static final int BUFFER = TraceRecorder.Type.BUFFER.ordinal();
+    private static final int NO_SEEK = -1;
+
+    private final TraceReader reader;
+    private final SimulationObserver target;
+    private final Executor uiExecutor;
+    private final long frameMillis;
+    private final long startNanos;
+    private final long duration;
+    private final Thread player;
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+    private volatile boolean running = true;
+    private volatile boolean playing;
+    private volatile double speed = 1.0;
+    private final AtomicLong seekRequest = new AtomicLong(NO_SEEK);
+    private volatile long position; // nanoseconds since the start of the trace
+    private volatile LongConsumer positionListener;
+
+    // Model of the run at the position, only touched by the player thread.
+    // Indexed by type, then actor; BUFFER keeps the size at 0. All zeros is
+    // the initial state: IDLE actors, free forks, an empty buffer.
+    private TraceReader.Cursor cursor;
+    private boolean pending; // the cursor holds an event past the position
+    private final int[][] states = new int[TYPES.length][];
+    private final boolean[][] changed = new boolean[TYPES.length][];
+    private int capacity;
+    private boolean dirty;
+    private long appliedSinceFrame;
+    private volatile long coalescedEvents; // written by the player thread only
+
+    public TracePlayer(TraceReader reader, SimulationObserver target, Executor uiExecutor) {
+        this(reader, target, uiExecutor, 16);
+    }
+
+    public TracePlayer(TraceReader reader, SimulationObserver target, Executor uiExecutor, long frameMillis) {
+        if (frameMillis <= 0) throw new IllegalArgumentException("frame interval must be positive: " + frameMillis);
+        this.reader = reader;
+        this.target = target;
+        this.uiExecutor = uiExecutor;
+        this.frameMillis = frameMillis;
+        this.startNanos = reader.getStartNanos();
+        this.duration = reader.getEndNanos() - startNanos;
+        this.capacity = reader.getWorkloadInt("capacity", 0);
+        int[] actors = new int[TYPES.length];
+        actors[BUFFER] = 1;
+        actors[TraceRecorder.Type.PRODUCER.ordinal()] = reader.getWorkloadInt("producers", 0);
+        actors[TraceRecorder.Type.CONSUMER.ordinal()] = reader.getWorkloadInt("consumers", 0);
+        actors[TraceRecorder.Type.PHILOSOPHER.ordinal()] = reader.getWorkloadInt("philosophers", 0);
+        actors[TraceRecorder.Type.FORK.ordinal()] = reader.getWorkloadInt("philosophers", 0);
+        actors[TraceRecorder.Type.READER.ordinal()] = reader.getWorkloadInt("readers", 0);
+        actors[TraceRecorder.Type.WRITER.ordinal()] = reader.getWorkloadInt("writers", 0);
+        actors[TraceRecorder.Type.RESOURCE.ordinal()] = 1;
+        for (int t = 0; t < TYPES.length; t++) {
+            states[t] = new int[actors[t]];
+            changed[t] = new boolean[actors[t]];
+        }
+        rewind();
+        this.player = new Thread(this::playLoop, "TracePlayer");
+        player.setDaemon(true);
+    }
+
+    /** Starts or resumes playback; at the end of the trace it restarts from the beginning */
+    public void play() {
+        if (position >= duration) seek(0);
+        playing = true;
+        if (player.getState() == Thread.State.NEW) player.start();
+    }
+
+    public void pause() {
+        playing = false;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /** Trace time per wall time: 1 plays in real time, 0.01 a hundred times slower */
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) throw new IllegalArgumentException("speed must be positive: " + speed);
+        this.speed = speed;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /** Moves to the given nanoseconds since the start of the trace, taking effect on the next frame */
+    public void seek(long nanos) {
+        seekRequest.set(Math.max(0, Math.min(duration, nanos)));
+        if (player.getState() == Thread.State.NEW) player.start();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    /** Nanoseconds from the first to the last event */
+    public long getDuration() {
+        return duration;
+    }
+
+    /** Called on the UI thread with the position each delivered frame shows */
+    public void setPositionListener(LongConsumer listener) {
+        positionListener = listener;
+    }
+
+    /** Events folded into a frame without being shown on their own */
+    public long getCoalescedEvents() {
+        return coalescedEvents;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        player.interrupt();
+        try {
+            player.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void playLoop() {
+        long last = System.nanoTime();
+        while (running) {
+            try {
+                Thread.sleep(frameMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            frame(now - last);
+            last = now;
+        }
+    }
+
+    /** One frame: apply a pending seek or advance by the elapsed wall time, then post the changes */
+    void frame(long elapsedWallNanos) {
+        long seek = seekRequest.getAndSet(NO_SEEK);
+        if (seek != NO_SEEK) {
+            if (seek < position) rewind();
+            position = seek;
+        } else if (playing) {
+            long next = position + (long) (elapsedWallNanos * speed);
+            if (next >= duration) {
+                next = duration;
+                playing = false;
+            }
+            position = next;
+        }
+        advance(position);
+        if (dirty && !framePending.get()) post();
+    }
+
+    // Back to the initial state, every entry to be redrawn
+    private void rewind() {
+        cursor = reader.cursor();
+        pending = false;
+        for (int t = 0; t < TYPES.length; t++) {
+            Arrays.fill(states[t], 0);
+            Arrays.fill(changed[t], true);
+        }
+        dirty = true;
+    }
+
+    private void advance(long to) {
+        while (pending || cursor.next()) {
+            if (cursor.getTimestamp() - startNanos > to) {
+                pending = true;
+                return;
+            }
+            pending = false;
+            apply(cursor.getType().ordinal(), cursor.getActor(), cursor.getValue());
+        }
+    }
+
+    private void apply(int type, int actor, int value) {
+        if (type == BUFFER) {
+            capacity = actor;
+            actor = 0;
+        }
+        if (actor < 0) return;
+        if (actor >= states[type].length) {
+            states[type] = Arrays.copyOf(states[type], actor + 1);
+            changed[type] = Arrays.copyOf(changed[type], actor + 1);
+        }
+        states[type][actor] = value;
+        changed[type][actor] = true;
+        dirty = true;
+        appliedSinceFrame++;
+    }
+
+    // Copies out the changed entries and hands them to the UI as one batch
+    private void post() {
+        int[][] actors = new int[TYPES.length][];
+        int[][] values = new int[TYPES.length][];
+        long delivered = 0;
+        for (int t = 0; t < TYPES.length; t++) {
+            int count = 0;
+            for (boolean c : changed[t]) if (c) count++;
+            actors[t] = new int[count];
+            values[t] = new int[count];
+            int i = 0;
+            for (int a = 0; a < changed[t].length; a++) {
+                if (!changed[t][a]) continue;
+                actors[t][i] = a;
+                values[t][i++] = states[t][a];
+                changed[t][a] = false;
+            }
+            delivered += count;
+        }
+        coalescedEvents += Math.max(0, appliedSinceFrame - delivered);
+        appliedSinceFrame = 0;
+        dirty = false;
+        int bufferCapacity = capacity;
+        long shown = position;
+
+        framePending.set(true);
+        uiExecutor.execute(() -> {
+            try {
+                for (int t = 0; t < TYPES.length; t++) {
+                    for (int i = 0; i < actors[t].length; i++) deliver(TYPES[t], actors[t][i], values[t][i], bufferCapacity);
+                }
+                LongConsumer listener = positionListener;
+                if (listener != null) listener.accept(shown);
+            } finally {
+                framePending.set(false);
+            }
+        });
+    }
+
+    private void deliver(TraceRecorder.Type type, int actor, int value, int bufferCapacity) {
+        switch (type) {
+            case BUFFER: target.onBufferUpdate(value, bufferCapacity); break;
+            case PRODUCER: target.onProducerState(actor, ActorState.fromCode(value)); break;
+            case CONSUMER: target.onConsumerState(actor, ActorState.fromCode(value)); break;
+            case PHILOSOPHER: target.onPhilosopherState(actor, ActorState.fromCode(value)); break;
+            case FORK: target.onForkUpdate(actor, value != 0); break;
+            case READER: target.onReaderState(actor, ActorState.fromCode(value)); break;
+            case WRITER: target.onWriterState(actor, ActorState.fromCode(value)); break;
+            case RESOURCE: target.onResourceState(ActorState.fromCode(value)); break;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.concurrency.gui;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latest state of everything the views draw: the buffer size, every actor's
+ * state, every fork and the shared resource, indexed by entity and actor.
+ * <p>
+ * Simulation threads overwrite their entry with a single atomic swap and never
+ * wait or allocate; an entry stays marked dirty until the FX thread applies it.
+ * Overwriting an entry that was not applied yet drops the earlier state and
+ * counts it as coalesced, so however fast the simulation runs, a frame applies
+ * at most one state per entry and memory stays at one int per entry. Events for
+ * actors the views do not draw are counted as dropped.
+ */
+final class ViewState {
+    /** What an entry draws; the buffer and the resource have one entry each */
+    enum Entity { BUFFER, PRODUCER, CONSUMER, PHILOSOPHER, FORK, READER, WRITER, RESOURCE }
+
+    interface Renderer {
+        void render(Entity entity, int actor, int value);
+    }
+
+    private static final Entity[] ENTITIES = Entity.values();
+    private static final int DIRTY = 1 << 31;
+
+    // Replaced, never resized, by resize(); values are ActorState ordinals, 1 for taken forks
+    private volatile AtomicIntegerArray[] entries = new AtomicIntegerArray[ENTITIES.length];
+    private volatile int bufferCapacity;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    ViewState() {
+        for (int t = 0; t < ENTITIES.length; t++) entries[t] = new AtomicIntegerArray(0);
+        resize(Entity.BUFFER, 1);
+        resize(Entity.RESOURCE, 1);
+    }
+
+    /** Sets the number of drawn actors of an entity, clearing its entries; call while no simulation runs */
+    void resize(Entity entity, int actors) {
+        AtomicIntegerArray[] copy = entries.clone();
+        copy[entity.ordinal()] = new AtomicIntegerArray(actors);
+        entries = copy;
+    }
+
+    void set(Entity entity, int actor, int value) {
+        AtomicIntegerArray states = entries[entity.ordinal()];
+        if (actor < 0 || actor >= states.length()) {
+            dropped.increment();
+            return;
+        }
+        if ((states.getAndSet(actor, value | DIRTY) & DIRTY) != 0) coalesced.increment();
+        if (!dirty.get()) dirty.set(true);
+    }
+
+    void setBuffer(int currentSize, int capacity) {
+        bufferCapacity = capacity;
+        set(Entity.BUFFER, 0, currentSize);
+    }
+
+    int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    /** Renders every entry changed since the previous call, once, and returns how many there were */
+    int apply(Renderer renderer) {
+        if (!dirty.getAndSet(false)) return 0;
+        AtomicIntegerArray[] current = entries;
+        int applied = 0;
+        for (int t = 0; t < current.length; t++) {
+            AtomicIntegerArray states = current[t];
+            for (int i = 0; i < states.length(); i++) {
+                int value = states.get(i);
+                // A writer may swap in a newer state between the read and the clear
+                while ((value & DIRTY) != 0 && !states.compareAndSet(i, value, value & ~DIRTY)) value = states.get(i);
+                if ((value & DIRTY) == 0) continue;
+                renderer.render(ENTITIES[t], i, value & ~DIRTY);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /** States overwritten before a frame showed them */
+    long getCoalescedEvents() {
+        return coalesced.sum();
+    }
+
+    /** Events for actors beyond the drawn ones */
+    long getDroppedEvents() {
+        return dropped.sum();
+    }
+}
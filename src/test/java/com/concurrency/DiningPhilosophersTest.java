@@ -1,6 +1,12 @@
 package com.concurrency;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DiningPhilosophersTest {
@@ -11,4 +17,89 @@ public class DiningPhilosophersTest {
             DiningPhilosophers.run(1000); // Run for 1 second
         });
     }
+
+    @Test
+    public void testEveryStrategyExcludesNeighboursAndEveryoneEats() throws Exception {
+        for (DiningStrategy strategy : DiningStrategy.values()) {
+            assertNeighboursExcludedAndEveryoneEats(strategy);
+        }
+    }
+
+    private void assertNeighboursExcludedAndEveryoneEats(DiningStrategy strategy) throws Exception {
+        int n = 7;
+        int mealsEach = 200;
+        DiningTable table = strategy.newTable(n, null);
+        AtomicIntegerArray eating = new AtomicIntegerArray(n);
+        AtomicLongArray meals = new AtomicLongArray(n);
+        List<String> violations = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            int id = i;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int m = 0; m < mealsEach; m++) {
+                        table.pickUpForks(id);
+                        eating.set(id, 1);
+                        if (eating.get((id + 1) % n) == 1 || eating.get((id + n - 1) % n) == 1) {
+                            synchronized (violations) {
+                                violations.add("Philosopher " + id + " ate next to a neighbour");
+                            }
+                        }
+                        meals.incrementAndGet(id);
+                        eating.set(id, 0);
+                        table.putDownForks(id);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join(10_000);
+            assertFalse(t.isAlive(), strategy + " did not finish, possible deadlock");
+        }
+
+        assertTrue(violations.isEmpty(), strategy + ": " + violations);
+        for (int i = 0; i < n; i++) {
+            assertEquals(mealsEach, meals.get(i), strategy + " philosopher " + i);
+        }
+    }
+
+    @Test
+    public void testMealsAreCountedPerPhilosopher() {
+        MetricsSnapshot snapshot = DiningPhilosophers.run(SimulationConfig.builder(SimulationConfig.Simulation.DINING_PHILOSOPHERS)
+                .philosophers(6)
+                .durationMillis(300)
+                .thinkNanos(1_000_000)
+                .eatNanos(1_000_000)
+                .printMetrics(false)
+                .build(), null);
+        RoleSnapshot philosophers = snapshot.getRole(PerformanceMetrics.Role.PHILOSOPHER);
+        assertEquals(6, philosophers.getActors());
+        assertEquals(snapshot.getTotalOperations(), philosophers.getTotalOperations());
+        assertTrue(philosophers.getFairnessIndex() > 1.0 / 6, "fairness index " + philosophers.getFairnessIndex());
+    }
+
+    @Test
+    public void testLargeTableRunsWithEveryStrategy() {
+        for (DiningStrategy strategy : DiningStrategy.values()) {
+            assertDoesNotThrow(() -> DiningPhilosophers.run(300, null, 200, strategy));
+        }
+    }
+
+    @Test
+    public void testChandyMisraForksStartWithTheLowerOfTheirTwoUsers() {
+        for (int n : new int[]{2, 3, 5, 8}) {
+            ChandyMisraTable table = new ChandyMisraTable(n, null, null);
+            for (int fork = 0; fork < n; fork++) {
+                // Philosopher i eats with forks i and i + 1, so fork f is shared by f - 1 and f
+                int left = (fork - 1 + n) % n;
+                int owner = table.ownerOf(fork);
+                assertTrue(owner == fork || owner == left, n + " philosophers: fork " + fork + " starts with " + owner);
+                assertEquals(Math.min(fork, left), owner);
+            }
+        }
+    }
 }
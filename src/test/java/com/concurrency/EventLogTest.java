@@ -0,0 +1,61 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTest {
+
+    private EventLog.Level level;
+
+    @BeforeEach
+    public void remember() {
+        level = EventLog.getLevel();
+    }
+
+    @AfterEach
+    public void restore() {
+        EventLog.flush();
+        EventLog.setOutput(null);
+        EventLog.setLevel(level);
+    }
+
+    @Test
+    public void testEventsAreFormattedOutsideTheCaller() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        EventLog.flush();
+        EventLog.setOutput(new PrintStream(captured, true));
+        EventLog.setLevel(EventLog.Level.TRACE);
+
+        EventLog.log(EventLog.Event.PRODUCED, 0, 42, 3);
+        EventLog.log(EventLog.Event.READ_STARTED, 1, 2);
+        EventLog.log(EventLog.Event.WRITER_STOPPED, 0);
+        EventLog.flush();
+
+        String text = captured.toString();
+        assertTrue(text.contains("Producer-1 produced: 42 | Buffer size: 3"), text);
+        assertTrue(text.contains("Reader-2 started reading. Readers = 2"), text);
+        assertTrue(text.contains("Writer-1 stopped."), text);
+    }
+
+    @Test
+    public void testLevelFiltersEvents() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        EventLog.flush();
+        EventLog.setOutput(new PrintStream(captured, true));
+
+        EventLog.setLevel(EventLog.Level.INFO);
+        EventLog.log(EventLog.Event.EATING, 0);
+        EventLog.log(EventLog.Event.PHILOSOPHER_STOPPED, 0);
+        EventLog.setLevel(EventLog.Level.OFF);
+        EventLog.log(EventLog.Event.PHILOSOPHER_STOPPED, 1);
+        EventLog.flush();
+
+        assertEquals("Philosopher-1 stopped.", captured.toString().trim());
+    }
+}
@@ -0,0 +1,226 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerformanceMetricsTest {
+
+    @Test
+    public void testHistogramBucketsCoverValuesWithinPrecision() {
+        long[] samples = {0, 1, 127, 128, 255, 256, 1_000, 123_456, 50_000_000L, Long.MAX_VALUE};
+        for (long v : samples) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKET_COUNT, "Index out of range for " + v);
+            assertTrue(LatencyHistogram.lowestEquivalentValue(index) <= v, "Bucket starts above " + v);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= v, "Bucket ends below " + v);
+            double error = (LatencyHistogram.highestEquivalentValue(index) - LatencyHistogram.lowestEquivalentValue(index))
+                    / (double) Math.max(1, v);
+            assertTrue(error <= 0.016, "Bucket too wide for " + v);
+        }
+    }
+
+    @Test
+    public void testWaitTimePercentiles() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        // 1..1000 microseconds
+        for (int i = 1; i <= 1000; i++) {
+            metrics.recordWaitTime(i * 1_000L);
+        }
+        assertEquals(0.5, metrics.getWaitTimePercentile(50), 0.5 * 0.016);
+        assertEquals(0.99, metrics.getWaitTimePercentile(99), 0.99 * 0.016);
+        assertEquals(1.0, metrics.getMaxWaitTime(), 1e-9);
+    }
+
+    @Test
+    public void testPercentilesNeverExceedTheMax() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.registerActors(PerformanceMetrics.Role.READER, 1);
+        // Both sit near the bottom of a wide bucket: its top is well above them
+        metrics.recordWaitTime(PerformanceMetrics.Role.READER, 0, 214_040_000L);
+        MetricsSnapshot first = metrics.snapshot();
+        metrics.recordWaitTime(PerformanceMetrics.Role.READER, 0, 272_147_000L);
+        MetricsSnapshot total = metrics.snapshot();
+        MetricsSnapshot window = total.since(first);
+
+        assertEquals(272.147, total.getMaxWaitTime(), 1e-9);
+        for (double p : new double[]{50, 99, 99.9, 100}) {
+            assertTrue(metrics.getWaitTimePercentile(p) <= metrics.getMaxWaitTime(), "live p" + p);
+            assertTrue(total.getWaitTimePercentile(p) <= total.getMaxWaitTime(), "p" + p);
+            assertTrue(window.getWaitTimePercentile(p) <= window.getMaxWaitTime(), "window p" + p);
+            assertTrue(total.getRole(PerformanceMetrics.Role.READER).getWaitTimePercentile(p) <= total.getMaxWaitTime(), "role p" + p);
+        }
+        assertEquals(total.getMaxWaitTime(), total.getWaitTimePercentile(100), 1e-9);
+        assertTrue(window.getMaxWaitTime() <= total.getMaxWaitTime());
+        assertTrue(window.getMaxWaitTime() >= 272.147 * 0.98, "window max " + window.getMaxWaitTime());
+    }
+
+    @Test
+    public void testWaitTimesMergedAcrossThreads() throws Exception {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) metrics.recordWaitTime(5_000);
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+
+        assertEquals(0.005, metrics.getWaitTimePercentile(99.9), 0.005 * 0.016);
+        assertEquals(80_000 * 5_000L, metrics.getTotalWaitTime());
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() throws Exception {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.start();
+        metrics.addOperation();
+        metrics.recordWaitTime(2_000_000);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        metrics.addOperation();
+        metrics.recordWaitTime(8_000_000);
+
+        assertEquals(1, snapshot.getTotalOperations());
+        assertEquals(2.0, snapshot.getAverageWaitTime(), 1e-9);
+        assertEquals(2.0, snapshot.getMaxWaitTime(), 1e-9);
+        assertTrue(snapshot.getElapsedNanos() > 0, "Running snapshot should measure elapsed time so far");
+        assertEquals(2, metrics.snapshot().getTotalOperations());
+    }
+
+    @Test
+    public void testFairnessIndex() {
+        assertEquals(1.0, PerformanceMetrics.fairnessIndex(new long[]{5, 5, 5, 5}), 1e-9);
+        assertEquals(0.25, PerformanceMetrics.fairnessIndex(new long[]{8, 0, 0, 0}), 1e-9);
+        assertEquals(1.0, PerformanceMetrics.fairnessIndex(new long[]{0, 0}), 1e-9);
+    }
+
+    @Test
+    public void testRunStoppedBeforeStartHasNoDuration() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.addOperation();
+        metrics.stop();
+        assertEquals(0, metrics.getDurationSeconds());
+        assertEquals(0, metrics.getThroughput());
+        assertEquals(0, metrics.snapshot().getElapsedNanos());
+    }
+
+    @Test
+    public void testRolesAddUpToTheTotalWhileActorsRun() throws Exception {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.registerActors(PerformanceMetrics.Role.PRODUCER, 1);
+        metrics.start();
+        Thread producer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) metrics.addOperation(PerformanceMetrics.Role.PRODUCER, 0);
+        });
+        producer.start();
+        try {
+            for (int i = 0; i < 1_000; i++) {
+                MetricsSnapshot snapshot = metrics.snapshot();
+                assertEquals(snapshot.getTotalOperations(),
+                        snapshot.getRole(PerformanceMetrics.Role.PRODUCER).getTotalOperations());
+            }
+        } finally {
+            producer.interrupt();
+            producer.join();
+        }
+    }
+
+    @Test
+    public void testRolesAreBrokenDownPerActor() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.registerActors(PerformanceMetrics.Role.PRODUCER, 2);
+        metrics.registerActors(PerformanceMetrics.Role.CONSUMER, 1);
+        metrics.addOperation(PerformanceMetrics.Role.PRODUCER, 1); // before start(): excluded
+        metrics.start();
+        metrics.addOperations(PerformanceMetrics.Role.PRODUCER, 0, 3);
+        metrics.addOperation(PerformanceMetrics.Role.PRODUCER, 1);
+        metrics.recordWaitTime(PerformanceMetrics.Role.PRODUCER, 1, 4_000_000);
+        metrics.addOperation(PerformanceMetrics.Role.CONSUMER, 0);
+        metrics.addOperation(PerformanceMetrics.Role.CONSUMER, -1); // outside the run: totals only
+        MetricsSnapshot earlier = metrics.snapshot();
+        metrics.addOperation(PerformanceMetrics.Role.CONSUMER, 0);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        RoleSnapshot producers = snapshot.getRole(PerformanceMetrics.Role.PRODUCER);
+        assertEquals(2, producers.getActors());
+        assertEquals(3, producers.getOperations(0));
+        assertEquals(1, producers.getOperations(1));
+        assertEquals(4, producers.getTotalOperations());
+        assertEquals(0.8, producers.getFairnessIndex(), 1e-9); // 4^2 / (2 * (3^2 + 1^2))
+        assertEquals(4.0, producers.getWaitTime(1), 1e-9);
+        assertEquals(1.0, producers.getAverageWaitTime(), 1e-9);
+        assertEquals(4.0, producers.getWaitTimePercentile(50), 4.0 * 0.016);
+        assertEquals(2, snapshot.getRole(PerformanceMetrics.Role.CONSUMER).getTotalOperations());
+        assertEquals(7, snapshot.getTotalOperations());
+        assertEquals(7, metrics.getTotalOperations());
+        assertNull(snapshot.getRole(PerformanceMetrics.Role.READER));
+
+        RoleSnapshot window = snapshot.since(earlier).getRole(PerformanceMetrics.Role.CONSUMER);
+        assertEquals(1, window.getOperations(0));
+        assertEquals(0, snapshot.since(earlier).getRole(PerformanceMetrics.Role.PRODUCER).getTotalOperations());
+    }
+
+    @Test
+    public void testStartExcludesWarmupRecords() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        for (int i = 0; i < 10; i++) {
+            metrics.addOperation();
+            metrics.recordWaitTime(50_000_000L); // slow warmup: 50 ms
+            metrics.increment(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS);
+        }
+
+        metrics.start();
+        metrics.addOperation();
+        metrics.recordWaitTime(1_000L);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getTotalOperations());
+        assertEquals(1_000L, snapshot.getTotalWaitTime());
+        assertEquals(0, snapshot.getCount(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS));
+        assertTrue(snapshot.getWaitTimePercentile(100) < 0.01, "Warmup wait times leaked into the percentiles");
+        assertTrue(snapshot.getMaxWaitTime() < 0.01, "Warmup max leaked into the measurement");
+    }
+
+    @Test
+    public void testSinceReportsTheInterval() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.setQueueDepthGauge(() -> 3);
+        for (int i = 0; i < 10; i++) {
+            metrics.addOperation();
+            metrics.recordWaitTime(50_000_000L); // 50 ms before the window
+        }
+        MetricsSnapshot earlier = metrics.snapshot();
+        for (int i = 0; i < 4; i++) {
+            metrics.addOperation();
+            metrics.recordWaitTime(1_000_000L);
+        }
+        metrics.increment(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS);
+
+        MetricsSnapshot window = metrics.snapshot().since(earlier);
+        assertEquals(4, window.getTotalOperations());
+        assertEquals(4_000_000L, window.getTotalWaitTime());
+        assertEquals(1, window.getCount(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS));
+        assertEquals(1.0, window.getWaitTimePercentile(99), 0.01);
+        assertEquals(1.0, window.getMaxWaitTime(), 0.01, "Max must come from the window, not the run");
+        assertEquals(3, window.getQueueDepth());
+        assertEquals(MetricsSnapshot.NO_QUEUE, new PerformanceMetrics().snapshot().getQueueDepth());
+    }
+
+    @Test
+    public void testSteadyStateDetector() {
+        SteadyStateDetector detector = new SteadyStateDetector(4, 0.05);
+        // Still ramping up
+        assertFalse(detector.addSample(100));
+        assertFalse(detector.addSample(400));
+        assertFalse(detector.addSample(800));
+        assertFalse(detector.addSample(1000));
+        // Settled around 1000 ops/s
+        assertFalse(detector.addSample(1010));
+        assertFalse(detector.addSample(990));
+        assertTrue(detector.addSample(1005));
+
+        assertFalse(new SteadyStateDetector(2, 0.1).addSample(0));
+    }
+}
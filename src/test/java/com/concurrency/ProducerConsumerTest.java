@@ -1,7 +1,14 @@
 package com.concurrency;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class ProducerConsumerTest {
 
@@ -11,4 +18,125 @@ public class ProducerConsumerTest {
             ProducerConsumer.run(1000); // Run for 1 second
         });
     }
+
+    @Test
+    public void testBatchesMoveAsMuchAsFitsInOrder() throws InterruptedException {
+        for (ProducerConsumer.BufferType type : ProducerConsumer.BufferType.values()) {
+            PerformanceMetrics metrics = new PerformanceMetrics();
+            BoundedBuffer buffer = ProducerConsumer.createBuffer(type, 5, metrics, null);
+            int[] src = {1, 2, 3, 4, 5, 6, 7, 8};
+
+            assertEquals(5, buffer.produceBatch(0, src, 0, src.length), type + ": only the free slots are filled");
+            int[] dst = new int[3];
+            assertEquals(3, buffer.drainTo(0, dst, 3), type.name());
+            assertArrayEquals(new int[] {1, 2, 3}, dst, type.name());
+            assertEquals(3, buffer.produceBatch(0, src, 5, 3), type.name());
+
+            dst = new int[10];
+            assertEquals(5, buffer.drainTo(0, dst, 10), type.name());
+            assertArrayEquals(new int[] {4, 5, 6, 7, 8}, Arrays.copyOf(dst, 5), type.name());
+            assertEquals(16, metrics.getTotalOperations(), type + ": every element counts as an operation");
+        }
+    }
+
+    @Test
+    public void testIntBufferWrapsAroundInFifoOrder() throws InterruptedException {
+        BoundedBuffer buffer = new IntBoundedBuffer(4, new PerformanceMetrics(), null);
+        int[] dst = new int[4];
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 10; round++) {
+            int[] src = {next, next + 1, next + 2};
+            assertEquals(3, buffer.produceBatch(0, src, 0, 3));
+            next += 3;
+            int n = buffer.drainTo(0, dst, 4);
+            for (int i = 0; i < n; i++) assertEquals(expected++, dst[i]);
+        }
+        assertEquals(next, expected);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testIntBufferDoesNotAllocatePerOperation() throws InterruptedException {
+        java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "thread allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        EventLog.Level level = EventLog.getLevel();
+        EventLog.setLevel(EventLog.Level.OFF);
+        try {
+            BoundedBuffer buffer = ProducerConsumer.createBuffer(ProducerConsumer.BufferType.LOCKING, 8, new PerformanceMetrics(), null);
+            for (int i = 0; i < 20_000; i++) { // warm up so the JIT is not measured
+                buffer.produce(0);
+                buffer.consume(0);
+            }
+            long id = Thread.currentThread().getId();
+            long before = threads.getThreadAllocatedBytes(id);
+            for (int i = 0; i < 100_000; i++) {
+                buffer.produce(0);
+                buffer.consume(0);
+            }
+            long allocated = threads.getThreadAllocatedBytes(id) - before;
+            assertTrue(allocated < 100_000, "allocated " + allocated + " bytes for 200000 operations");
+        } finally {
+            EventLog.setLevel(level);
+        }
+    }
+
+    @Test
+    public void testConcurrentBatchesLoseNothing() throws InterruptedException {
+        BoundedBuffer buffer = ProducerConsumer.createBuffer(ProducerConsumer.BufferType.LOCKING, 16, new PerformanceMetrics(), null);
+        int perProducer = 10_000;
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong sum = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            int id = p;
+            threads.add(new Thread(() -> {
+                int[] batch = new int[7];
+                Arrays.fill(batch, 1);
+                try {
+                    for (int sent = 0; sent < perProducer; ) {
+                        sent += buffer.produceBatch(id, batch, 0, Math.min(batch.length, perProducer - sent));
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }));
+        }
+        for (int c = 0; c < 2; c++) {
+            int id = c;
+            threads.add(new Thread(() -> {
+                int[] batch = new int[5];
+                try {
+                    while (true) {
+                        int n = buffer.drainTo(id, batch, batch.length);
+                        for (int i = 0; i < n; i++) sum.addAndGet(batch[i]);
+                        consumed.addAndGet(n);
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (int p = 0; p < 3; p++) threads.get(p).join(10_000);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (consumed.get() < 3L * perProducer && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        buffer.stop();
+        for (Thread t : threads) t.join(1000);
+        assertEquals(3L * perProducer, consumed.get());
+        assertEquals(3L * perProducer, sum.get());
+    }
+
+    @Test
+    public void testBatchModeRuns() {
+        MetricsSnapshot snapshot = ProducerConsumer.run(SimulationConfig.builder(SimulationConfig.Simulation.PRODUCER_CONSUMER)
+                .durationMillis(300)
+                .thinkNanos(1_000_000)
+                .batchSize(4)
+                .printMetrics(false)
+                .build(), null);
+        assertTrue(snapshot.getTotalOperations() > 0);
+    }
 }
@@ -1,9 +1,13 @@
 package com.concurrency;
 
-import org.junit.jupiter.api.Disabled;
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -23,11 +27,11 @@ public class ReadersWritersTest {
 
             Thread reader = new Thread(() -> {
                 try {
-                    monitor.startRead("R");
+                    monitor.startRead(0);
                     readerEntered.countDown();
                     // hold the read lock until test signals
                     readerContinue.await();
-                    monitor.endRead("R");
+                    monitor.endRead(0);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -36,9 +40,9 @@ public class ReadersWritersTest {
             Thread writer = new Thread(() -> {
                 try {
                     // attempt to acquire write lock (should block until reader ends)
-                    monitor.startWrite("W");
+                    monitor.startWrite(0);
                     writerAcquired.countDown();
-                    monitor.endWrite("W");
+                    monitor.endWrite(0);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -84,13 +88,13 @@ public class ReadersWritersTest {
                 ex.submit(() -> {
                     try {
                         startLatch.await();
-                        monitor.startRead("R");
+                        monitor.startRead(0);
                         int c = current.incrementAndGet();
                         max.updateAndGet(prev -> Math.max(prev, c));
                         enteredLatch.countDown();
                         Thread.sleep(200);
                         current.decrementAndGet();
-                        monitor.endRead("R");
+                        monitor.endRead(0);
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
@@ -120,10 +124,10 @@ public class ReadersWritersTest {
 
             Thread r1 = new Thread(() -> {
                 try {
-                    monitor.startRead("R1");
+                    monitor.startRead(0);
                     readerEntered.countDown();
                     Thread.sleep(500);
-                    monitor.endRead("R1");
+                    monitor.endRead(0);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -134,8 +138,8 @@ public class ReadersWritersTest {
                     // ensure writer attempts after first reader started
                     readerEntered.await();
                     writerTrying.countDown();
-                    monitor.startWrite("W");
-                    monitor.endWrite("W");
+                    monitor.startWrite(0);
+                    monitor.endWrite(0);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -145,9 +149,9 @@ public class ReadersWritersTest {
                 try {
                     // wait until writer is trying to acquire lock
                     writerTrying.await();
-                    monitor.startRead("R2");
+                    monitor.startRead(1);
                     secondReaderEntered.countDown();
-                    monitor.endRead("R2");
+                    monitor.endRead(1);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -172,10 +176,293 @@ public class ReadersWritersTest {
             r2.join(1000);
         }
 
-        @Disabled("Requires writer-priority monitor implementation")
         @Test
-        public void testWriterPriorityVariant() {
-            // Placeholder for a writer-priority monitor test
+        public void testWriterPriorityVariant() throws Exception {
+            ReadersWritersMonitor monitor = new ReadersWritersMonitor(
+                    new PerformanceMetrics(), null, ReadersWritersPolicy.WRITER_PREFERENCE);
+
+            CountDownLatch readerEntered = new CountDownLatch(1);
+            CountDownLatch readerContinue = new CountDownLatch(1);
+            CountDownLatch writerTrying = new CountDownLatch(1);
+            CountDownLatch writerDone = new CountDownLatch(1);
+            CountDownLatch secondReaderEntered = new CountDownLatch(1);
+            AtomicInteger order = new AtomicInteger(0);
+            AtomicInteger writerOrder = new AtomicInteger();
+            AtomicInteger secondReaderOrder = new AtomicInteger();
+
+            Thread r1 = new Thread(() -> {
+                try {
+                    monitor.startRead(0);
+                    readerEntered.countDown();
+                    readerContinue.await();
+                    monitor.endRead(0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            Thread writer = new Thread(() -> {
+                try {
+                    writerTrying.countDown();
+                    monitor.startWrite(0);
+                    writerOrder.set(order.incrementAndGet());
+                    monitor.endWrite(0);
+                    writerDone.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            Thread r2 = new Thread(() -> {
+                try {
+                    monitor.startRead(1);
+                    secondReaderOrder.set(order.incrementAndGet());
+                    secondReaderEntered.countDown();
+                    monitor.endRead(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            r1.start();
+            assertTrue(readerEntered.await(1, TimeUnit.SECONDS));
+
+            writer.start();
+            assertTrue(writerTrying.await(1, TimeUnit.SECONDS));
+            Thread.sleep(100); // let the writer block inside startWrite
+
+            r2.start();
+
+            // A waiting writer keeps new readers out
+            assertFalse(secondReaderEntered.await(300, TimeUnit.MILLISECONDS), "Reader overtook a waiting writer");
+
+            readerContinue.countDown();
+            assertTrue(writerDone.await(1, TimeUnit.SECONDS), "Writer did not get in after the active reader left");
+            assertTrue(secondReaderEntered.await(1, TimeUnit.SECONDS), "Reader did not get in after the writer left");
+            assertTrue(writerOrder.get() < secondReaderOrder.get(), "Writer should have gone before the second reader");
+
+            r1.join(1000);
+            writer.join(1000);
+            r2.join(1000);
+        }
+
+        @Test
+        public void testInterruptedWriterLetsQueuedReadersIn() throws Exception {
+            ReadersWritersMonitor monitor = new ReadersWritersMonitor(
+                    new PerformanceMetrics(), null, ReadersWritersPolicy.WRITER_PREFERENCE);
+            CountDownLatch secondReaderEntered = new CountDownLatch(1);
+
+            // R1 reads while W waits for it and R2 queues up behind W
+            monitor.startRead(0);
+            Thread writer = new Thread(() -> {
+                try {
+                    monitor.startWrite(0);
+                    monitor.endWrite(0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread r2 = new Thread(() -> {
+                try {
+                    monitor.startRead(1);
+                    secondReaderEntered.countDown();
+                    monitor.endRead(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            writer.start();
+            Thread.sleep(100);
+            r2.start();
+            assertFalse(secondReaderEntered.await(100, TimeUnit.MILLISECONDS), "Reader overtook a waiting writer");
+
+            writer.interrupt();
+            assertTrue(secondReaderEntered.await(1, TimeUnit.SECONDS), "R2 should not wait for a writer that gave up");
+            monitor.endRead(0);
+            writer.join(1000);
+            r2.join(1000);
+        }
+
+        @Test
+        public void testPhaseFairAdmitsWaitingReadersBeforeNextWriter() throws Exception {
+            ReadersWritersMonitor monitor = new ReadersWritersMonitor(
+                    new PerformanceMetrics(), null, ReadersWritersPolicy.PHASE_FAIR);
+            List<String> entries = Collections.synchronizedList(new ArrayList<>());
+
+            // W1 holds the resource while R1 and then W2 queue up behind it
+            monitor.startWrite(0);
+
+            Thread r1 = new Thread(() -> {
+                try {
+                    monitor.startRead(0);
+                    entries.add("R1");
+                    monitor.endRead(0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread w2 = new Thread(() -> {
+                try {
+                    monitor.startWrite(1);
+                    entries.add("W2");
+                    monitor.endWrite(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            r1.start();
+            Thread.sleep(100);
+            w2.start();
+            Thread.sleep(100);
+
+            monitor.endWrite(0);
+            r1.join(1000);
+            w2.join(1000);
+
+            assertEquals(List.of("R1", "W2"), entries, "Waiting reader should form the next read phase");
+        }
+
+        @Test
+        public void testInterruptedBatchReaderDoesNotBlockWriters() throws Exception {
+            Thread[] reader = new Thread[1];
+            // Interrupts R1 inside W1's endWrite, after it joined the read batch but before it could enter
+            SimulationObserver interruptOnEndWrite = new SimulationObserver() {
+                @Override public void onBufferUpdate(int currentSize, int capacity) { }
+                @Override public void onProducerState(int producer, ActorState state) { }
+                @Override public void onConsumerState(int consumer, ActorState state) { }
+                @Override public void onPhilosopherState(int philosopher, ActorState state) { }
+                @Override public void onForkUpdate(int fork, boolean taken) { }
+                @Override public void onReaderState(int r, ActorState state) { }
+                @Override public void onWriterState(int writer, ActorState state) {
+                    if (writer == 0 && state == ActorState.IDLE) reader[0].interrupt();
+                }
+                @Override public void onResourceState(ActorState state) { }
+            };
+            ReadersWritersMonitor monitor = new ReadersWritersMonitor(
+                    new PerformanceMetrics(), interruptOnEndWrite, ReadersWritersPolicy.PHASE_FAIR);
+            CountDownLatch w2Wrote = new CountDownLatch(1);
+
+            monitor.startWrite(0);
+            reader[0] = new Thread(() -> {
+                try {
+                    monitor.startRead(0);
+                    monitor.endRead(0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread w2 = new Thread(() -> {
+                try {
+                    monitor.startWrite(1);
+                    w2Wrote.countDown();
+                    monitor.endWrite(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            reader[0].start();
+            Thread.sleep(100);
+            w2.start();
+            Thread.sleep(100);
+
+            monitor.endWrite(0);
+            reader[0].join(1000);
+            assertTrue(w2Wrote.await(1, TimeUnit.SECONDS), "W2 should not wait for a reader that gave up");
+            w2.join(1000);
+        }
+
+        @Test
+        public void testEndWriteWakesOnlyAdmissibleThreads() throws Exception {
+            PerformanceMetrics metrics = new PerformanceMetrics();
+            ReadersWritersMonitor monitor = new ReadersWritersMonitor(metrics);
+            CountDownLatch allReading = new CountDownLatch(10);
+            CountDownLatch readersContinue = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+
+            // W1 holds the resource while ten readers and W2 queue up behind it
+            monitor.startWrite(0);
+            for (int i = 0; i < 10; i++) {
+                int reader = i;
+                threads.add(new Thread(() -> {
+                    try {
+                        monitor.startRead(reader);
+                        allReading.countDown();
+                        readersContinue.await();
+                        monitor.endRead(reader);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            threads.add(new Thread(() -> {
+                try {
+                    monitor.startWrite(1);
+                    monitor.endWrite(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            threads.forEach(Thread::start);
+            Thread.sleep(200);
+
+            monitor.endWrite(0);
+            assertTrue(allReading.await(1, TimeUnit.SECONDS), "All waiting readers should be admitted together");
+            readersContinue.countDown();
+            for (Thread t : threads) t.join(1000);
+
+            assertEquals(12, metrics.getTotalOperations());
+            assertEquals(0, metrics.getCount(PerformanceMetrics.Counter.SPURIOUS_WAKEUPS),
+                    "W2 should only be woken once the last reader leaves");
+        }
+    }
+
+    @Nested
+    class StampedMonitorBehavior {
+        @Test
+        public void testReadsAreOptimisticWithoutWriters() throws Exception {
+            PerformanceMetrics metrics = new PerformanceMetrics();
+            StampedReadersWritersMonitor monitor = new StampedReadersWritersMonitor(metrics);
+
+            monitor.startWrite(0);
+            monitor.writeData(42);
+            monitor.endWrite(0);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(42, monitor.read(0));
+            }
+            assertEquals(10, metrics.getCount(PerformanceMetrics.Counter.OPTIMISTIC_READS));
+            assertEquals(0, metrics.getCount(PerformanceMetrics.Counter.PESSIMISTIC_READS));
+        }
+
+        @Test
+        public void testReadFallsBackToLockWhileWriterActive() throws Exception {
+            PerformanceMetrics metrics = new PerformanceMetrics();
+            StampedReadersWritersMonitor monitor = new StampedReadersWritersMonitor(metrics);
+            AtomicInteger seen = new AtomicInteger(-1);
+
+            monitor.startWrite(0);
+            Thread reader = new Thread(() -> {
+                try {
+                    seen.set(monitor.read(0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            reader.start();
+            Thread.sleep(100);
+            monitor.writeData(7);
+            monitor.endWrite(0);
+            reader.join(1000);
+
+            assertEquals(7, seen.get(), "Reader saw a value from inside the write section");
+            assertEquals(1, metrics.getCount(PerformanceMetrics.Counter.PESSIMISTIC_READS));
+        }
+
+        @Test
+        public void testStampedSimulationRunsWithoutError() {
+            assertDoesNotThrow(() -> ReadersWriters.run(500, null,
+                    ReadersWritersPolicy.READER_PREFERENCE, ReadersWriters.MonitorType.STAMPED));
         }
     }
 }
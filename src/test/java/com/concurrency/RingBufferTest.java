@@ -0,0 +1,86 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferTest {
+
+    @Test
+    public void testOfferFailsWhenFullAndPollIsFifo() {
+        RingBuffer ring = RingBuffer.multiProducer(5, new PerformanceMetrics(), null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(99), "Offer succeeded on a full ring");
+        assertEquals(5, ring.size());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertEquals(0, ring.size());
+        assertEquals(Long.MIN_VALUE, ring.poll(), "Poll returned a value from an empty ring");
+    }
+
+    @Test
+    public void testMultiProducerDeliversEveryValueOnce() throws Exception {
+        RingBuffer ring = RingBuffer.multiProducer(7, new PerformanceMetrics(), null);
+        int producers = 3;
+        int consumers = 3;
+        int perProducer = 20_000;
+        AtomicLong consumedSum = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 1; i <= perProducer; i++) ring.put(i);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        int perConsumer = producers * perProducer / consumers;
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                try {
+                    long sum = 0;
+                    for (int i = 0; i < perConsumer; i++) sum += ring.take();
+                    consumedSum.addAndGet(sum);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join(10_000);
+
+        long expected = (long) producers * perProducer * (perProducer + 1) / 2;
+        assertEquals(expected, consumedSum.get());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void testStopReleasesBlockedConsumer() throws Exception {
+        RingBuffer ring = RingBuffer.singleProducer(2, new PerformanceMetrics(), null);
+        Thread consumer = new Thread(() -> assertThrows(InterruptedException.class, ring::take));
+        consumer.start();
+        Thread.sleep(50);
+        ring.stop();
+        consumer.join(1000);
+        assertFalse(consumer.isAlive(), "Consumer still blocked after stop");
+    }
+
+    @Test
+    public void testRingBufferSimulationsRunWithoutError() {
+        assertDoesNotThrow(() -> {
+            ProducerConsumer.run(500, null, ProducerConsumer.BufferType.RING_SINGLE_PRODUCER);
+            ProducerConsumer.run(500, null, ProducerConsumer.BufferType.RING_MULTI_PRODUCER);
+        });
+    }
+}
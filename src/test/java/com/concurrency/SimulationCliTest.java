@@ -0,0 +1,54 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationCliTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return SimulationCli.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    @Test
+    public void testJsonReportForConfiguredWorkload() {
+        int code = run("--sim", "readers-writers", "--readers", "4", "--writers", "1",
+                "--policy", "phase-fair", "--think-ns", "1000000", "--eat-ns", "500000", "--duration", "300");
+
+        assertEquals(SimulationCli.OK, code, err.toString());
+        String json = out.toString().trim();
+        assertTrue(json.startsWith("{") && json.endsWith("}"), json);
+        assertTrue(json.contains("\"simulation\": \"READERS_WRITERS\""), json);
+        assertTrue(json.contains("\"readers\": 4"), json);
+        assertTrue(json.contains("\"policy\": \"PHASE_FAIR\""), json);
+        assertFalse(json.contains("\"operations\": 0,"), "Short think/eat times should complete operations: " + json);
+    }
+
+    @Test
+    public void testCsvHeaderMatchesRow() {
+        int code = run("--sim=producer-consumer", "--producers=3", "--consumers=1", "--capacity=16",
+                "--think-ns=0", "--duration=200", "--warmup=100", "--format=csv");
+
+        assertEquals(SimulationCli.OK, code, err.toString());
+        String[] lines = out.toString().trim().split("\\R");
+        assertEquals(2, lines.length);
+        assertEquals(lines[0].split(",").length, lines[1].split(",").length);
+        assertTrue(lines[1].startsWith("PRODUCER_CONSUMER,200,100,0,"), lines[1]);
+    }
+
+    @Test
+    public void testInvalidArgumentsReportUsage() {
+        assertEquals(SimulationCli.USAGE_ERROR, run("--producers", "2"));
+        assertTrue(err.toString().contains("--sim is required"));
+
+        assertEquals(SimulationCli.USAGE_ERROR, run("--sim", "dining-philosophers", "--philosophers", "1"));
+        assertEquals(SimulationCli.USAGE_ERROR, run("--sim", "producer-consumer", "--bogus", "1"));
+        assertEquals("", out.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationHandleTest {
+
+    @Test
+    public void testStopEndsEverySimulationPromptly() throws Exception {
+        for (SimulationConfig.Simulation simulation : SimulationConfig.Simulation.values()) {
+            SimulationConfig config = SimulationConfig.builder(simulation)
+                    .durationMillis(Long.MAX_VALUE)
+                    .printMetrics(false)
+                    .build();
+            SimulationHandle handle = SimulationHandle.start(config, null);
+            Thread.sleep(200);
+            assertFalse(handle.isDone(), simulation + " ended on its own");
+            assertEquals(SimulationHandle.NOT_STOPPED, handle.getShutdownNanos());
+            assertNull(handle.getResult());
+
+            handle.stop();
+            assertTrue(handle.awaitTermination(2, TimeUnit.SECONDS), simulation + " did not stop");
+            MetricsSnapshot result = handle.getResult();
+            assertNotNull(result);
+            assertTrue(result.getTotalOperations() > 0, simulation + " did no work");
+            // The actors themselves stop long before their 50-150 ms think and eat times end
+            assertTrue(result.getShutdownNanos() >= 0 && result.getShutdownNanos() < TimeUnit.MILLISECONDS.toNanos(100),
+                    simulation + " actors took " + result.getShutdownNanos() + " ns");
+            assertTrue(handle.getShutdownNanos() >= result.getShutdownNanos());
+
+            // Every actor has finished: nothing is recorded any more
+            long operations = handle.getMetrics().getTotalOperations();
+            Thread.sleep(200);
+            assertEquals(operations, handle.getMetrics().getTotalOperations(), simulation + " kept running");
+        }
+    }
+
+    @Test
+    public void testRunThatEndsOnItsOwnReportsItsShutdown() throws Exception {
+        SimulationConfig config = SimulationConfig.builder(SimulationConfig.Simulation.DINING_PHILOSOPHERS)
+                .durationMillis(100)
+                .printMetrics(false)
+                .build();
+        SimulationHandle handle = SimulationHandle.start(config, null);
+        assertTrue(handle.awaitTermination(2, TimeUnit.SECONDS));
+        assertTrue(handle.isDone());
+        assertEquals(handle.getResult().getShutdownNanos(), handle.getShutdownNanos());
+        handle.stop(); // no effect once done
+        assertEquals(handle.getResult().getShutdownNanos(), handle.getShutdownNanos());
+    }
+}
@@ -0,0 +1,44 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class SimulationThreadsTest {
+
+    @Test
+    public void testSimulationsCreateActorsThroughFactory() {
+        AtomicInteger created = new AtomicInteger();
+        ThreadFactory counting = r -> {
+            created.incrementAndGet();
+            return new Thread(r);
+        };
+
+        ProducerConsumer.run(200, null, ProducerConsumer.BufferType.LOCKING, counting);
+        assertEquals(5, created.getAndSet(0));
+        ReadersWriters.run(200, null, ReadersWritersPolicy.READER_PREFERENCE, ReadersWriters.MonitorType.MONITOR, counting);
+        assertEquals(5, created.getAndSet(0));
+        DiningPhilosophers.run(200, null, 9, DiningStrategy.WAITER, counting);
+        assertEquals(9, created.get());
+    }
+
+    @Test
+    public void testVirtualFactoryMatchesRuntime() {
+        if (SimulationThreads.virtualThreadsSupported()) {
+            assertNotNull(SimulationThreads.virtual().newThread(() -> { }));
+        } else {
+            assertThrows(UnsupportedOperationException.class, SimulationThreads::virtual);
+        }
+    }
+
+    @Test
+    public void testLargeTableOnVirtualThreads() {
+        assumeTrue(SimulationThreads.virtualThreadsSupported(), "Virtual threads need JDK 21+");
+        assertDoesNotThrow(() -> DiningPhilosophers.run(500, null, 10_000,
+                DiningStrategy.CHANDY_MISRA, SimulationThreads.virtual()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.concurrency;
+
+import com.concurrency.gui.ActorState;
+import com.concurrency.gui.SimulationObserver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceRecorderTest {
+
+    @TempDir
+    Path dir;
+
+    private static SimulationConfig config() {
+        return SimulationConfig.builder(SimulationConfig.Simulation.DINING_PHILOSOPHERS).philosophers(4).build();
+    }
+
+    @Test
+    public void testThreadsAreMergedInTimeOrder() throws Exception {
+        Path file = dir.resolve("threads.trace");
+        int perThread = 10_000;
+        try (TraceRecorder recorder = TraceRecorder.create(file, config(), 8, perThread)) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                int philosopher = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        recorder.onPhilosopherState(philosopher, i % 2 == 0 ? ActorState.HUNGRY : ActorState.EATING);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread t : threads) t.join();
+            assertEquals(0, recorder.getDroppedEvents());
+        }
+
+        TraceReader reader = TraceReader.open(file);
+        assertEquals(4, reader.getThreads());
+        assertEquals(4L * perThread, reader.getEventCount());
+        assertEquals("DINING_PHILOSOPHERS", reader.getWorkload().get("simulation"));
+        assertEquals(4, reader.getWorkloadInt("philosophers", 0));
+
+        TraceReader.Cursor cursor = reader.cursor();
+        long previous = -1;
+        long events = 0;
+        int[] perPhilosopher = new int[4];
+        while (cursor.next()) {
+            assertTrue(cursor.getTimestamp() >= previous, "out of order at event " + events);
+            previous = cursor.getTimestamp();
+            assertEquals(TraceRecorder.Type.PHILOSOPHER, cursor.getType());
+            perPhilosopher[cursor.getActor()]++;
+            events++;
+        }
+        assertEquals(4L * perThread, events);
+        for (int count : perPhilosopher) assertEquals(perThread, count);
+    }
+
+    @Test
+    public void testReplayReproducesTheObserverCalls() {
+        Path file = dir.resolve("replay.trace");
+        try (TraceRecorder recorder = TraceRecorder.create(file, config(), 1, 16)) {
+            recorder.onBufferUpdate(3, 5);
+            recorder.onProducerState(1, ActorState.PRODUCING);
+            recorder.onForkUpdate(2, true);
+            recorder.onResourceState(ActorState.WRITING);
+        }
+
+        List<String> calls = new ArrayList<>();
+        TraceReader.open(file).replay(new SimulationObserver() {
+            @Override public void onBufferUpdate(int currentSize, int capacity) { calls.add("buffer " + currentSize + "/" + capacity); }
+            @Override public void onProducerState(int producer, ActorState state) { calls.add("producer " + producer + " " + state); }
+            @Override public void onConsumerState(int consumer, ActorState state) { calls.add("consumer " + consumer + " " + state); }
+            @Override public void onPhilosopherState(int philosopher, ActorState state) { calls.add("philosopher " + philosopher + " " + state); }
+            @Override public void onForkUpdate(int fork, boolean taken) { calls.add("fork " + fork + " " + taken); }
+            @Override public void onReaderState(int reader, ActorState state) { calls.add("reader " + reader + " " + state); }
+            @Override public void onWriterState(int writer, ActorState state) { calls.add("writer " + writer + " " + state); }
+            @Override public void onResourceState(ActorState state) { calls.add("resource " + state); }
+        });
+        assertEquals(List.of("buffer 3/5", "producer 1 PRODUCING", "fork 2 true", "resource WRITING"), calls);
+    }
+
+    @Test
+    public void testFullRegionDropsAndCounts() {
+        Path file = dir.resolve("full.trace");
+        try (TraceRecorder recorder = TraceRecorder.create(file, config(), 1, 10)) {
+            for (int i = 0; i < 25; i++) recorder.onForkUpdate(0, i % 2 == 0);
+            assertEquals(15, recorder.getDroppedEvents());
+        }
+        TraceReader reader = TraceReader.open(file);
+        assertEquals(10, reader.getEventCount());
+        assertEquals(15, reader.getDroppedEvents());
+    }
+
+    @Test
+    public void testRecordedRunIsSummarized() {
+        Path file = dir.resolve("run.trace");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int code = SimulationCli.run(new String[]{"--sim", "producer-consumer", "--think-ns", "100000", "--eat-ns", "100000",
+                "--duration", "200", "--trace", file.toString()}, new PrintStream(out, true), new PrintStream(err, true));
+        assertEquals(SimulationCli.OK, code, err.toString());
+
+        out.reset();
+        code = TraceCli.run(new String[]{"summary", file.toString()}, new PrintStream(out, true), new PrintStream(err, true));
+        assertEquals(SimulationCli.OK, code, err.toString());
+        String summary = out.toString();
+        assertTrue(summary.contains("simulation=PRODUCER_CONSUMER"), summary);
+        assertTrue(summary.contains("PRODUCING per actor"), summary);
+        assertTrue(summary.contains("CONSUMING per actor"), summary);
+
+        assertEquals(SimulationCli.USAGE_ERROR, TraceCli.run(new String[]{"summary", dir.resolve("missing").toString()},
+                new PrintStream(out, true), new PrintStream(err, true)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WaitStrategyTest {
+
+    @Test
+    public void testBufferHandoffLosesNothing() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            BoundedBuffer buffer = new IntBoundedBuffer(2, new PerformanceMetrics(), null, strategy);
+            int perThread = 200; // pure spinning crawls when there are fewer cores than threads
+            AtomicLong consumed = new AtomicLong();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                int id = i;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int n = 0; n < perThread; n++) buffer.produce(id);
+                    } catch (InterruptedException ignored) {
+                    }
+                }));
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int n = 0; n < perThread; n++) {
+                            buffer.consume(id);
+                            consumed.incrementAndGet();
+                        }
+                    } catch (InterruptedException ignored) {
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread t : threads) t.join(20_000);
+            buffer.stop();
+            assertEquals(2L * perThread, consumed.get(), strategy.name());
+        }
+    }
+
+    @Test
+    public void testStopReleasesWaiters() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            BoundedBuffer buffer = new IntBoundedBuffer(1, new PerformanceMetrics(), null, strategy);
+            AtomicBoolean released = new AtomicBoolean();
+            Thread consumer = new Thread(() -> {
+                try {
+                    buffer.consume(0);
+                } catch (InterruptedException e) {
+                    released.set(true);
+                }
+            });
+            consumer.start();
+            Thread.sleep(50);
+            buffer.stop();
+            consumer.join(2000);
+            assertTrue(released.get(), strategy + ": waiter did not notice stop()");
+        }
+    }
+
+    @Test
+    public void testWritersStayExclusive() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            ReadersWritersMonitor monitor = new ReadersWritersMonitor(new PerformanceMetrics(), null,
+                    ReadersWritersPolicy.PHASE_FAIR, strategy);
+            AtomicInteger readers = new AtomicInteger();
+            AtomicInteger writers = new AtomicInteger();
+            AtomicBoolean violated = new AtomicBoolean();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                boolean writer = i < 2;
+                int id = i;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int n = 0; n < 200; n++) {
+                            if (writer) {
+                                monitor.startWrite(id);
+                                if (writers.incrementAndGet() > 1 || readers.get() > 0) violated.set(true);
+                                writers.decrementAndGet();
+                                monitor.endWrite(id);
+                            } else {
+                                monitor.startRead(id);
+                                readers.incrementAndGet();
+                                if (writers.get() > 0) violated.set(true);
+                                readers.decrementAndGet();
+                                monitor.endRead(id);
+                            }
+                        }
+                    } catch (InterruptedException ignored) {
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread t : threads) t.join(20_000);
+            monitor.stop();
+            assertFalse(violated.get(), strategy.name());
+            for (Thread t : threads) assertFalse(t.isAlive(), strategy + ": a thread never got in");
+        }
+    }
+
+    @Test
+    public void testAdaptiveSpinLimitFollowsOutcome() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        Condition condition = lock.newCondition();
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        AdaptiveWaiter waiter = new AdaptiveWaiter(metrics);
+        int initial = waiter.getSpinLimit();
+
+        lock.lock();
+        try {
+            waiter.await(lock, condition, () -> true);
+            assertEquals(initial * 2, waiter.getSpinLimit(), "a successful spin extends the limit");
+
+            Thread signaller = new Thread(() -> {
+                // Signal only once the waiter has given up spinning and parked
+                while (true) {
+                    lock.lock();
+                    try {
+                        if (lock.hasWaiters(condition)) {
+                            condition.signal();
+                            return;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    Thread.yield();
+                }
+            });
+            signaller.start();
+            waiter.await(lock, condition, () -> false);
+            signaller.join();
+            assertEquals(initial, waiter.getSpinLimit(), "parking shortens the limit");
+        } finally {
+            lock.unlock();
+        }
+        assertEquals(1, metrics.getCount(PerformanceMetrics.Counter.SPIN_WAITS));
+        assertEquals(1, metrics.getCount(PerformanceMetrics.Counter.PARKED_WAITS));
+    }
+}
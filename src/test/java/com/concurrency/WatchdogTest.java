@@ -0,0 +1,125 @@
+package com.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WatchdogTest {
+    private static final long PERIOD_MILLIS = 100;
+    private static final long MAX_WAIT_MILLIS = 10_000;
+
+    // Not started: the tests drive scan() with their own clock
+    private static Watchdog watchdog(PerformanceMetrics metrics, int actors, int resources) {
+        return new Watchdog(actors, a -> "Actor-" + a, resources, r -> "Lock-" + r, metrics, null,
+                PERIOD_MILLIS, MAX_WAIT_MILLIS);
+    }
+
+    private static long millis(long millis) {
+        return millis * 1_000_000;
+    }
+
+    @Test
+    public void testCycleIsReportedOnceAfterAPeriod() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        Watchdog watchdog = watchdog(metrics, 2, 2);
+        watchdog.waiting(0, 0);
+        watchdog.acquired(0, 0);
+        watchdog.waiting(0, 1);
+        watchdog.waiting(1, 1);
+        watchdog.acquired(1, 1);
+        watchdog.waiting(1, 0);
+        long now = System.nanoTime();
+
+        watchdog.scan(now);
+        assertEquals(0, metrics.snapshot().getCount(PerformanceMetrics.Counter.DEADLOCKS), "too young to report");
+
+        watchdog.scan(now + millis(2 * PERIOD_MILLIS));
+        watchdog.scan(now + millis(3 * PERIOD_MILLIS));
+        assertEquals(1, metrics.snapshot().getCount(PerformanceMetrics.Counter.DEADLOCKS));
+        List<String> findings = metrics.snapshot().getWatchdogFindings();
+        assertEquals(1, findings.size());
+        assertTrue(findings.get(0).contains("Actor-0 (waiting for Lock-1)"), findings.toString());
+    }
+
+    @Test
+    public void testChainsAndSharedHoldsAreNotCycles() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        Watchdog watchdog = watchdog(metrics, 3, 2);
+        // 0 waits for 1, which waits for 2, which is running
+        watchdog.acquired(1, 0);
+        watchdog.waiting(0, 0);
+        watchdog.acquired(2, 1);
+        watchdog.waiting(1, 1);
+        // 2 already holds the resource it asks for again, like a second read lock
+        watchdog.waiting(2, 1);
+
+        watchdog.scan(System.nanoTime() + millis(5 * PERIOD_MILLIS));
+        assertEquals(0, metrics.snapshot().getCount(PerformanceMetrics.Counter.DEADLOCKS));
+    }
+
+    @Test
+    public void testStarvedWaitIsFlaggedOncePerWait() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        Watchdog watchdog = watchdog(metrics, 1, 1);
+        watchdog.waiting(0, Watchdog.UNTRACKED);
+        long late = System.nanoTime() + millis(MAX_WAIT_MILLIS + 1);
+
+        watchdog.scan(late);
+        watchdog.scan(late + millis(PERIOD_MILLIS));
+        assertEquals(1, metrics.snapshot().getCount(PerformanceMetrics.Counter.STARVED_WAITS));
+
+        watchdog.doneWaiting(0);
+        watchdog.scan(late + millis(2 * PERIOD_MILLIS));
+        watchdog.waiting(0, 0);
+        watchdog.scan(System.nanoTime() + millis(2 * MAX_WAIT_MILLIS + 1));
+        assertEquals(2, metrics.snapshot().getCount(PerformanceMetrics.Counter.STARVED_WAITS));
+    }
+
+    @Test
+    public void testOnlyTheLatestFindingsAreKept() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        Watchdog watchdog = watchdog(metrics, 1, 1);
+        EventLog.Level level = EventLog.getLevel();
+        EventLog.setLevel(EventLog.Level.OFF);
+        try {
+            for (int wait = 0; wait < 3 * PerformanceMetrics.MAX_FINDINGS; wait++) {
+                watchdog.waiting(0, Watchdog.UNTRACKED);
+                watchdog.scan(System.nanoTime() + millis(MAX_WAIT_MILLIS + wait + 1));
+                watchdog.doneWaiting(0);
+            }
+        } finally {
+            EventLog.setLevel(level);
+        }
+        List<String> findings = metrics.snapshot().getWatchdogFindings();
+        assertEquals(PerformanceMetrics.MAX_FINDINGS, findings.size());
+        String newest = findings.get(findings.size() - 1);
+        long waited = Long.parseLong(newest.split(" ")[3]); // "Actor-0 has waited N ms"
+        assertTrue(waited >= MAX_WAIT_MILLIS + 3 * PerformanceMetrics.MAX_FINDINGS, newest);
+    }
+
+    @Test
+    public void testSimulationsRunCleanUnderTheWatchdog() {
+        for (DiningStrategy strategy : DiningStrategy.values()) {
+            MetricsSnapshot snapshot = DiningPhilosophers.run(config(SimulationConfig.Simulation.DINING_PHILOSOPHERS)
+                    .diningStrategy(strategy).build(), null);
+            assertEquals(0, snapshot.getCount(PerformanceMetrics.Counter.DEADLOCKS), strategy.name());
+            assertTrue(snapshot.getTotalOperations() > 0, strategy.name());
+        }
+        for (ReadersWriters.MonitorType type : ReadersWriters.MonitorType.values()) {
+            MetricsSnapshot snapshot = ReadersWriters.run(config(SimulationConfig.Simulation.READERS_WRITERS)
+                    .monitorType(type).build(), null);
+            assertEquals(0, snapshot.getCount(PerformanceMetrics.Counter.DEADLOCKS), type.name());
+        }
+    }
+
+    private static SimulationConfig.Builder config(SimulationConfig.Simulation simulation) {
+        return SimulationConfig.builder(simulation)
+                .durationMillis(300)
+                .thinkNanos(1_000_000)
+                .eatNanos(1_000_000)
+                .watchdogPeriodMillis(20)
+                .printMetrics(false);
+    }
+}
@@ -0,0 +1,56 @@
+package com.concurrency.gui;
+
+import com.concurrency.MetricsSnapshot;
+import com.concurrency.PerformanceMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsSamplerTest {
+
+    @Test
+    public void testWindowsCoverOperationsSinceLastUpdate() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        List<Runnable> frames = new ArrayList<>();
+        List<MetricsSnapshot> windows = new ArrayList<>();
+        // Long period: only the explicit sample() calls run
+        try (MetricsSampler sampler = new MetricsSampler(metrics, (total, window) -> windows.add(window), frames::add, 60_000)) {
+            metrics.addOperation();
+            sampler.sample();
+            frames.remove(0).run();
+
+            metrics.addOperation();
+            metrics.addOperation();
+            sampler.sample();
+            frames.remove(0).run();
+        }
+
+        assertEquals(1, windows.get(0).getTotalOperations());
+        assertEquals(2, windows.get(1).getTotalOperations());
+    }
+
+    @Test
+    public void testOnlyOneUpdateIsPendingAtATime() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        List<Runnable> frames = new ArrayList<>();
+        List<MetricsSnapshot> totals = new ArrayList<>();
+        try (MetricsSampler sampler = new MetricsSampler(metrics, (total, window) -> totals.add(total), frames::add, 60_000)) {
+            sampler.sample();
+            metrics.addOperation();
+            sampler.sample(); // skipped, the first update has not been applied yet
+            assertEquals(1, frames.size());
+
+            frames.remove(0).run();
+            sampler.sample();
+            assertEquals(1, frames.size());
+            frames.remove(0).run();
+        }
+
+        assertEquals(2, totals.size());
+        assertEquals(0, totals.get(0).getTotalOperations());
+        assertEquals(1, totals.get(1).getTotalOperations());
+    }
+}
@@ -0,0 +1,19 @@
+package com.concurrency.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* Test observer that records every call as a string, in order */
+class RecordingObserver implements SimulationObserver {
+    final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @Override public void onBufferUpdate(int currentSize, int capacity) { events.add("buffer:" + currentSize + "/" + capacity); }
+    @Override public void onProducerState(int producer, ActorState state) { events.add("producer:" + producer + ":" + state); }
+    @Override public void onConsumerState(int consumer, ActorState state) { events.add("consumer:" + consumer + ":" + state); }
+    @Override public void onPhilosopherState(int philosopher, ActorState state) { events.add("philosopher:" + philosopher + ":" + state); }
+    @Override public void onForkUpdate(int fork, boolean taken) { events.add("fork:" + fork + ":" + taken); }
+    @Override public void onReaderState(int reader, ActorState state) { events.add("reader:" + reader + ":" + state); }
+    @Override public void onWriterState(int writer, ActorState state) { events.add("writer:" + writer + ":" + state); }
+    @Override public void onResourceState(ActorState state) { events.add("resource:" + state); }
+}
@@ -0,0 +1,103 @@
+package com.concurrency.gui;
+
+import com.concurrency.SimulationConfig;
+import com.concurrency.TraceReader;
+import com.concurrency.TraceRecorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracePlayerTest {
+
+    @TempDir
+    Path dir;
+
+    // Two bursts of events 50 ms apart: the player's duration is about 50 ms
+    private TraceReader record() throws InterruptedException {
+        Path file = dir.resolve("player.trace");
+        SimulationConfig config = SimulationConfig.builder(SimulationConfig.Simulation.PRODUCER_CONSUMER)
+                .producers(2).consumers(2).capacity(5).build();
+        try (TraceRecorder recorder = TraceRecorder.create(file, config, 4, 1024)) {
+            for (int i = 0; i < 100; i++) {
+                recorder.onProducerState(0, i % 2 == 0 ? ActorState.WAITING : ActorState.PRODUCING);
+                recorder.onBufferUpdate(i % 5, 5);
+            }
+            recorder.onProducerState(0, ActorState.IDLE);
+            Thread.sleep(50);
+            recorder.onBufferUpdate(4, 5);
+            recorder.onConsumerState(1, ActorState.CONSUMING);
+        }
+        return TraceReader.open(file);
+    }
+
+    // The players below get a long frame interval so their thread stays asleep and the tests drive frame()
+    private static void runFrames(List<Runnable> frames) {
+        List<Runnable> pending = new ArrayList<>(frames);
+        frames.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testSeekShowsTheRecordedStateAtThePosition() throws Exception {
+        RecordingObserver target = new RecordingObserver();
+        List<Runnable> frames = new ArrayList<>();
+        List<Long> positions = new ArrayList<>();
+        try (TracePlayer player = new TracePlayer(record(), target, frames::add, 60_000)) {
+            player.setPositionListener(positions::add);
+            long half = player.getDuration() / 2;
+
+            player.seek(half);
+            player.frame(0);
+            runFrames(frames);
+            assertTrue(target.events.contains("producer:0:IDLE"), target.events.toString());
+            assertTrue(target.events.contains("buffer:4/5"), target.events.toString()); // 99 % 5
+            assertTrue(target.events.contains("consumer:1:IDLE"), target.events.toString());
+            assertFalse(target.events.contains("consumer:1:CONSUMING"), target.events.toString());
+            assertTrue(player.getCoalescedEvents() > 150, "coalesced " + player.getCoalescedEvents());
+            assertEquals(List.of(half), positions);
+
+            target.events.clear();
+            player.seek(player.getDuration());
+            player.frame(0);
+            runFrames(frames);
+            assertEquals(List.of("buffer:4/5", "consumer:1:CONSUMING"), target.events);
+
+            // Backwards: rebuilt from the start, every entry redrawn
+            target.events.clear();
+            player.seek(half);
+            player.frame(0);
+            runFrames(frames);
+            assertTrue(target.events.contains("consumer:1:IDLE"), target.events.toString());
+            assertTrue(target.events.contains("producer:0:IDLE"), target.events.toString());
+        }
+    }
+
+    @Test
+    public void testPlaybackAdvancesByWallTimeTimesSpeed() throws Exception {
+        RecordingObserver target = new RecordingObserver();
+        List<Runnable> frames = new ArrayList<>();
+        try (TracePlayer player = new TracePlayer(record(), target, frames::add, 60_000)) {
+            player.setSpeed(0.5);
+            player.seek(0);
+            player.play();
+            player.frame(0);
+            long duration = player.getDuration();
+            player.frame(duration);
+            assertEquals(duration / 2, player.getPosition());
+
+            // No frame is posted while the previous one is still pending
+            assertEquals(1, frames.size());
+            runFrames(frames);
+            player.frame(2 * duration);
+            assertEquals(duration, player.getPosition());
+            assertFalse(player.isPlaying());
+            runFrames(frames);
+            assertEquals("consumer:1:CONSUMING", target.events.get(target.events.size() - 1));
+        }
+    }
+}
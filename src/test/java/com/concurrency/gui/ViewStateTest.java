@@ -0,0 +1,84 @@
+package com.concurrency.gui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViewStateTest {
+
+    private static List<String> apply(ViewState model) {
+        List<String> rendered = new ArrayList<>();
+        model.apply((entity, actor, value) -> rendered.add(entity + ":" + actor + ":" + value));
+        return rendered;
+    }
+
+    @Test
+    public void testEachFrameRendersTheLatestStateOnce() {
+        ViewState model = new ViewState();
+        model.resize(ViewState.Entity.PRODUCER, 2);
+        model.resize(ViewState.Entity.FORK, 5);
+
+        for (int i = 0; i < 100; i++) {
+            model.setBuffer(i % 5, 5);
+            model.set(ViewState.Entity.PRODUCER, 1, i % 3);
+        }
+        model.set(ViewState.Entity.FORK, 4, 1);
+        assertEquals(List.of("BUFFER:0:4", "PRODUCER:1:0", "FORK:4:1"), apply(model));
+        assertEquals(5, model.getBufferCapacity());
+        assertEquals(198, model.getCoalescedEvents());
+
+        assertEquals(List.of(), apply(model));
+        model.set(ViewState.Entity.FORK, 4, 0);
+        assertEquals(List.of("FORK:4:0"), apply(model));
+        assertEquals(198, model.getCoalescedEvents());
+    }
+
+    @Test
+    public void testActorsBeyondTheDrawnOnesAreDropped() {
+        ViewState model = new ViewState();
+        model.resize(ViewState.Entity.READER, 3);
+        model.set(ViewState.Entity.READER, 3, ActorState.READING.ordinal());
+        model.set(ViewState.Entity.READER, -1, ActorState.READING.ordinal());
+        model.set(ViewState.Entity.WRITER, 0, ActorState.WRITING.ordinal());
+        assertEquals(3, model.getDroppedEvents());
+        assertEquals(List.of(), apply(model));
+    }
+
+    @Test
+    public void testConcurrentWritesAreEitherRenderedOrCoalesced() throws Exception {
+        ViewState model = new ViewState();
+        int actors = 4;
+        int updates = 100_000;
+        model.resize(ViewState.Entity.PHILOSOPHER, actors);
+        Thread[] threads = new Thread[actors];
+        for (int t = 0; t < actors; t++) {
+            int actor = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= updates; i++) model.set(ViewState.Entity.PHILOSOPHER, actor, i);
+            });
+            threads[t].start();
+        }
+
+        int[] lastRendered = new int[actors];
+        long rendered = 0;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread t : threads) running |= t.isAlive();
+            // Never more than one state per entry and frame
+            int frame = model.apply((entity, actor, value) -> {
+                assertTrue(value > lastRendered[actor], "went back to " + value);
+                lastRendered[actor] = value;
+            });
+            assertTrue(frame <= actors, "frame of " + frame);
+            rendered += frame;
+        }
+
+        for (int last : lastRendered) assertEquals(updates, last);
+        assertEquals((long) actors * updates, rendered + model.getCoalescedEvents());
+        assertEquals(0, model.getDroppedEvents());
+    }
+}